@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+#
+# AppCDS training run.
+#
+# Unpacks the Spring Boot jar into target/cds/app, starts the application from a plain classpath with
+# -XX:ArchiveClassesAtExit, exercises sign-up and sign-in, and stops it so the JVM writes a dynamic
+# class-data-sharing archive to target/cds/app.jsa. The exact classpath is saved to target/cds/classpath,
+# because the archive is only used when the application is started with the same classpath.
+#
+# Run it after ./mvnw package, or let ./mvnw -Pcds package run it. Start the application with:
+#
+#   java -XX:SharedArchiveFile=target/cds/app.jsa -cp "$(cat target/cds/classpath)" \
+#        com.c0lap5o.JWTAuthenticationBackend.JahCloud
+#
+# Environment: PORT (default 18080), CDS_TRAINING_ARGS to replace the default H2 "test" profile arguments.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-18080}"
+BASE_URL="http://localhost:${PORT}"
+CDS_DIR="target/cds"
+MAIN_CLASS="com.c0lap5o.JWTAuthenticationBackend.JahCloud"
+read -r -a TRAINING_ARGS <<< "${CDS_TRAINING_ARGS:---spring.profiles.active=test --logging.level.root=WARN}"
+
+jar=$(ls target/JWTAuthenticationBackend-*.jar | grep -v original | head -n 1)
+
+# CDS only archives classes loaded by the built-in class loaders, so run from an exploded classpath
+rm -rf "${CDS_DIR}"
+mkdir -p "${CDS_DIR}/app"
+(cd "${CDS_DIR}/app" && jar -xf "../../../${jar}")
+
+# CDS rejects non-empty directories on the classpath, so repackage the application classes as a plain jar
+jar -cf "${CDS_DIR}/app/application.jar" -C "${CDS_DIR}/app/BOOT-INF/classes" .
+classpath="${CDS_DIR}/app/application.jar"
+for lib in $(ls "${CDS_DIR}"/app/BOOT-INF/lib/*.jar | sort); do
+  classpath="${classpath}:${lib}"
+done
+echo "${classpath}" > "${CDS_DIR}/classpath"
+
+java -XX:ArchiveClassesAtExit="${CDS_DIR}/app.jsa" -cp "${classpath}" "${MAIN_CLASS}" \
+  "${TRAINING_ARGS[@]}" --server.port="${PORT}" > "${CDS_DIR}/training.log" 2>&1 &
+pid=$!
+
+# Exercise the hot paths so their classes are loaded before the archive is written
+status=000
+for _ in $(seq 1 1200); do
+  if ! kill -0 "${pid}" 2>/dev/null; then
+    echo "Training run exited early, see ${CDS_DIR}/training.log" >&2
+    exit 1
+  fi
+  curl -s -o /dev/null -X POST "${BASE_URL}/api/auth/signup" -H 'Content-Type: application/json' \
+    -d '{"username":"training","email":"training@example.com","password":"training123"}' || true
+  status=$(curl -s -o /dev/null -w '%{http_code}' -X POST "${BASE_URL}/api/auth/signin" \
+    -H 'Content-Type: application/json' -d '{"username":"training","password":"training123"}' || true)
+  [ "${status}" = "200" ] && break
+  sleep 0.1
+done
+
+# A graceful stop lets the JVM dump the archive on exit
+kill -TERM "${pid}"
+wait "${pid}" || true
+
+if [ "${status}" != "200" ] || [ ! -s "${CDS_DIR}/app.jsa" ]; then
+  echo "CDS training failed, see ${CDS_DIR}/training.log" >&2
+  exit 1
+fi
+echo "CDS archive written to ${CDS_DIR}/app.jsa ($(du -h "${CDS_DIR}/app.jsa" | cut -f1))"
@@ -0,0 +1,170 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark and smoke test.
+#
+# Starts the application in each requested mode against the in-memory H2 "test" profile, signs up an admin,
+# and measures the time from launch to the first successful POST /api/auth/signin, plus the resident set
+# size (RSS) of the process right after that sign-in. Fails if any mode cannot serve /api/auth/signin.
+#
+# Usage: scripts/startup-benchmark.sh [--lazy] [--record-startup] [jvm] [cds] [native]
+#
+#   jvm               runs target/JWTAuthenticationBackend-*.jar      (./mvnw package)
+#   cds               runs the exploded jar with the AppCDS archive   (./mvnw -Pcds package)
+#   native            runs target/JWTAuthenticationBackend            (./mvnw -Pnative -Dnative.profiles=test package)
+#   --lazy            starts with spring.main.lazy-initialization=true
+#   --record-startup  records ApplicationStartup steps (JVM modes only) and prints the slowest ones after the
+#                     last run of each mode, from /actuator/startup
+#
+# Environment: PORT (default 18080), RUNS per mode (default 3), JAVA_OPTS for the JVM modes.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-18080}"
+RUNS="${RUNS:-3}"
+BASE_URL="http://localhost:${PORT}"
+APP_ARGS=(--spring.profiles.active=test --server.port="${PORT}" --logging.level.root=WARN)
+RECORD_STARTUP=false
+MODES=()
+for arg in "$@"; do
+  case "${arg}" in
+    --lazy) APP_ARGS+=(--spring.main.lazy-initialization=true) ;;
+    --record-startup) RECORD_STARTUP=true ;;
+    *) MODES+=("${arg}") ;;
+  esac
+done
+if [ ${#MODES[@]} -eq 0 ]; then
+  MODES=(jvm)
+fi
+
+JVM_OPTS="${JAVA_OPTS:-}"
+if [ "${RECORD_STARTUP}" = "true" ]; then
+  JVM_OPTS="${JVM_OPTS} -Dapp.recordStartup=true"
+fi
+
+# Prints the launch command of a mode
+command_for() {
+  case "$1" in
+    jvm)
+      local jar
+      jar=$(ls target/JWTAuthenticationBackend-*.jar | grep -v original | head -n 1)
+      echo "java ${JVM_OPTS} -jar ${jar}"
+      ;;
+    cds)
+      if [ ! -s target/cds/app.jsa ]; then
+        echo "No CDS archive, run scripts/cds-training.sh first" >&2
+        exit 2
+      fi
+      echo "java ${JVM_OPTS} -XX:SharedArchiveFile=target/cds/app.jsa -Xlog:cds=off -cp $(cat target/cds/classpath)" \
+        "com.c0lap5o.JWTAuthenticationBackend.JahCloud"
+      ;;
+    native)
+      echo "target/JWTAuthenticationBackend"
+      ;;
+    *)
+      echo "Unknown mode: $1" >&2
+      exit 2
+      ;;
+  esac
+}
+
+# Prints the current time in milliseconds
+now_ms() {
+  date +%s%3N
+}
+
+# Saves the recorded startup steps of the running instance to target/startup-<mode>.steps.json
+fetch_startup_steps() {
+  local token
+  token=$(sed -E 's/.*"token":"([^"]+)".*/\1/' target/startup-signin.json)
+  curl -s -H "Authorization: Bearer ${token}" "${BASE_URL}/actuator/startup" > "target/startup-${1}.steps.json" || true
+}
+
+# Prints the slowest recorded startup steps of a mode, grouped by bean name where there is one
+print_startup_steps() {
+  python3 - "target/startup-${1}.steps.json" <<'PY'
+import json, re, sys
+
+def seconds(duration):
+    match = re.fullmatch(r"PT(?:(\d+)M)?(?:([\d.]+)S)?", duration or "")
+    return (int(match.group(1) or 0) * 60 + float(match.group(2) or 0)) if match else 0.0
+
+with open(sys.argv[1]) as f:
+    events = json.load(f)["timeline"]["events"]
+steps = []
+for event in events:
+    step = event["startupStep"]
+    tags = {t["key"]: t["value"] for t in step.get("tags", [])}
+    steps.append((seconds(event.get("duration")), step["name"], tags.get("beanName", "")))
+for duration, name, bean in sorted(steps, reverse=True)[:15]:
+    print(f"  {duration * 1000:9.1f} ms  {name}  {bean}")
+PY
+}
+
+# Starts one instance, waits for the first successful sign-in and prints "<startup ms> <rss kB>"
+measure() {
+  local mode="$1" log="target/startup-${1}.log"
+  local start pid status rss
+
+  start=$(now_ms)
+  # shellcheck disable=SC2046
+  $(command_for "${mode}") "${APP_ARGS[@]}" > "${log}" 2>&1 &
+  pid=$!
+
+  # Register the user as soon as the server accepts requests, then sign in
+  status=000
+  for _ in $(seq 1 1200); do
+    if ! kill -0 "${pid}" 2>/dev/null; then
+      echo "${mode}: process exited, see ${log}" >&2
+      return 1
+    fi
+    status=$(curl -s -o /dev/null -w '%{http_code}' -X POST "${BASE_URL}/api/auth/signup" \
+      -H 'Content-Type: application/json' \
+      -d '{"username":"benchmark","email":"benchmark@example.com","password":"benchmark123","role":["admin"]}' || true)
+    if [ "${status}" = "200" ] || [ "${status}" = "400" ]; then
+      status=$(curl -s -o "target/startup-signin.json" -w '%{http_code}' -X POST "${BASE_URL}/api/auth/signin" \
+        -H 'Content-Type: application/json' \
+        -d '{"username":"benchmark","password":"benchmark123"}' || true)
+      [ "${status}" = "200" ] && break
+    fi
+    sleep 0.05
+  done
+
+  local elapsed=$(( $(now_ms) - start ))
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status" 2>/dev/null || echo 0)
+  if [ "${status}" = "200" ] && [ "${RECORD_STARTUP}" = "true" ] && [ "${mode}" != "native" ]; then
+    fetch_startup_steps "${mode}"
+  fi
+  kill "${pid}" 2>/dev/null || true
+  wait "${pid}" 2>/dev/null || true
+
+  if [ "${status}" != "200" ]; then
+    echo "${mode}: /api/auth/signin never succeeded (last status ${status}), see ${log}" >&2
+    return 1
+  fi
+  echo "${elapsed} ${rss}"
+}
+
+printf '%-8s %6s %22s %14s\n' "mode" "runs" "time-to-signin (ms)" "RSS (MB)"
+for mode in "${MODES[@]}"; do
+  total_ms=0
+  total_rss=0
+  for _ in $(seq 1 "${RUNS}"); do
+    result=$(measure "${mode}")
+    read -r ms rss <<< "${result}"
+    total_ms=$(( total_ms + ms ))
+    total_rss=$(( total_rss + rss ))
+  done
+  printf '%-8s %6d %22d %14d\n' "${mode}" "${RUNS}" $(( total_ms / RUNS )) $(( total_rss / RUNS / 1024 ))
+done
+
+if [ "${RECORD_STARTUP}" = "true" ]; then
+  for mode in "${MODES[@]}"; do
+    if [ -s "target/startup-${mode}.steps.json" ]; then
+      echo
+      echo "Slowest startup steps (${mode}):"
+      print_startup_steps "${mode}"
+    fi
+  done
+fi
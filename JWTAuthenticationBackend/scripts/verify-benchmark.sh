@@ -0,0 +1,130 @@
+#!/usr/bin/env bash
+#
+# Throughput benchmark of GET /api/auth/verify, the endpoint reverse proxies call for subrequest authentication.
+#
+# Starts the jar against the in-memory H2 "test" profile pinned to SERVER_CPUS, waits until it is ready (after
+# its warm-up), signs up and signs in an admin user (introspection needs ROLE_GATEWAY, which ADMIN reaches), and
+# then drives the endpoint with a keep-alive load generator.
+# For comparison it drives POST /api/auth/introspect/batch with the same single token, a full controller round
+# trip returning JSON. Prints requests per second in total and per server core.
+#
+# Usage: scripts/verify-benchmark.sh     (after ./mvnw package)
+#
+# Load generator: wrk if installed, else ab, else a Python client, which saturates sooner than the server does on
+# small machines; run the load generator on other cores than SERVER_CPUS for meaningful per-core numbers.
+#
+# Environment: PORT (default 18080), SERVER_CPUS (taskset CPU list, default 0), CONNECTIONS (default 16),
+# DURATION in seconds per measurement (default 15), VERIFY_SECRET (the proxy secret the server is started with
+# and every request sends), JAVA_OPTS.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-18080}"
+SERVER_CPUS="${SERVER_CPUS:-0}"
+CONNECTIONS="${CONNECTIONS:-16}"
+DURATION="${DURATION:-15}"
+VERIFY_SECRET="${VERIFY_SECRET:-benchmark-proxy-secret}"
+BASE_URL="http://localhost:${PORT}"
+LOG="target/verify-benchmark.log"
+
+jar=$(ls target/JWTAuthenticationBackend-*.jar | grep -v original | head -n 1)
+
+# Prints the number of CPUs in a taskset CPU list such as "0", "0-3" or "0,2-3"
+count_cpus() {
+  python3 -c '
+import sys
+print(sum(int(b) - int(a) + 1 if "-" in r else 1
+          for r in sys.argv[1].split(",") for a, _, b in [r.partition("-")]))' "$1"
+}
+
+# Drives a URL for DURATION seconds and prints the requests per second; arguments: method path [json body]
+load() {
+  local method="$1" url="${BASE_URL}$2" body="${3:-}"
+  if command -v wrk > /dev/null; then
+    local script
+    script=$(mktemp --suffix=.lua)
+    printf 'wrk.method = "%s"\nwrk.body = [[%s]]\nwrk.headers["Content-Type"] = "application/json"\n' \
+      "${method}" "${body}" > "${script}"
+    wrk -t2 -c"${CONNECTIONS}" -d"${DURATION}s" -s "${script}" -H "Authorization: Bearer ${TOKEN}" \
+      -H "X-Verify-Secret: ${VERIFY_SECRET}" "${url}" \
+      | awk '/Requests\/sec/ {print int($2)}'
+    rm -f "${script}"
+  elif command -v ab > /dev/null; then
+    local post=()
+    if [ "${method}" = "POST" ]; then
+      printf '%s' "${body}" > target/verify-benchmark.body
+      post=(-p target/verify-benchmark.body -T application/json)
+    fi
+    ab -k -q -c "${CONNECTIONS}" -t "${DURATION}" -n 100000000 "${post[@]}" \
+      -H "Authorization: Bearer ${TOKEN}" -H "X-Verify-Secret: ${VERIFY_SECRET}" "${url}" 2>/dev/null | awk '/Requests per second/ {print int($4)}'
+  else
+    python3 - "${method}" "${url}" "${body}" "${TOKEN}" "${CONNECTIONS}" "${DURATION}" "${VERIFY_SECRET}" <<'PY'
+import http.client, sys, threading, time
+from urllib.parse import urlsplit
+
+method, url, body, token, connections, duration, secret = sys.argv[1:8]
+target = urlsplit(url)
+headers = {"Authorization": "Bearer " + token, "X-Verify-Secret": secret, "Content-Type": "application/json"}
+deadline = time.monotonic() + float(duration)
+counts = []
+
+def worker():
+    conn = http.client.HTTPConnection(target.hostname, target.port)
+    done = 0
+    while time.monotonic() < deadline:
+        conn.request(method, target.path, body=body or None, headers=headers)
+        conn.getresponse().read()
+        done += 1
+    counts.append(done)
+
+threads = [threading.Thread(target=worker) for _ in range(int(connections))]
+start = time.monotonic()
+for t in threads:
+    t.start()
+for t in threads:
+    t.join()
+print(int(sum(counts) / (time.monotonic() - start)))
+PY
+  fi
+}
+
+# Start the server on the benchmarked cores only
+# shellcheck disable=SC2086
+taskset -c "${SERVER_CPUS}" java ${JAVA_OPTS:-} -jar "${jar}" --spring.profiles.active=test --server.port="${PORT}" \
+  --logging.level.root=WARN --app.verify.proxySecret="${VERIFY_SECRET}" > "${LOG}" 2>&1 &
+pid=$!
+trap 'kill "${pid}" 2>/dev/null || true; wait "${pid}" 2>/dev/null || true' EXIT
+
+# Wait for readiness, which includes the JIT warm-up
+for _ in $(seq 1 600); do
+  if ! kill -0 "${pid}" 2>/dev/null; then
+    echo "Server exited, see ${LOG}" >&2
+    exit 1
+  fi
+  [ "$(curl -s -o /dev/null -w '%{http_code}' "${BASE_URL}/actuator/health/readiness" || true)" = "200" ] && break
+  sleep 0.2
+done
+
+curl -s -o /dev/null -X POST "${BASE_URL}/api/auth/signup" -H 'Content-Type: application/json' \
+  -d '{"username":"benchmark","email":"benchmark@example.com","password":"benchmark123","role":["admin"]}'
+TOKEN=$(curl -s -X POST "${BASE_URL}/api/auth/signin" -H 'Content-Type: application/json' \
+  -d '{"username":"benchmark","password":"benchmark123"}' | sed -E 's/.*"token":"([^"]+)".*/\1/')
+status=$(curl -s -o /dev/null -w '%{http_code}' -H "Authorization: Bearer ${TOKEN}" -H "X-Verify-Secret: ${VERIFY_SECRET}" \
+  "${BASE_URL}/api/auth/verify")
+if [ "${status}" != "204" ]; then
+  echo "/api/auth/verify answered ${status} instead of 204, see ${LOG}" >&2
+  exit 1
+fi
+
+cores=$(count_cpus "${SERVER_CPUS}")
+printf '%-32s %12s %16s\n' "endpoint" "req/s" "req/s per core"
+for endpoint in "GET /api/auth/verify" "POST /api/auth/introspect/batch"; do
+  read -r method path <<< "${endpoint}"
+  body=""
+  [ "${method}" = "POST" ] && body="{\"tokens\":[\"${TOKEN}\"]}"
+  DURATION=$(( (DURATION + 2) / 3 )) load "${method}" "${path}" "${body}" > /dev/null # Let the JIT settle
+  rps=$(load "${method}" "${path}" "${body}")
+  printf '%-32s %12d %16d\n' "${endpoint}" "${rps}" $(( rps / cores ))
+done
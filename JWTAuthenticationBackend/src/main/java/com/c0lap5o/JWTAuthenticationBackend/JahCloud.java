@@ -2,12 +2,22 @@ package com.c0lap5o.JWTAuthenticationBackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JahCloud {
 
 	public static void main(String[] args) {
-    SpringApplication.run(JahCloud.class, args);
+		SpringApplication application = new SpringApplication(JahCloud.class);
+
+		// Record startup steps for /actuator/startup when run with -Dapp.recordStartup=true
+		if (Boolean.getBoolean("app.recordStartup")) {
+			application.setApplicationStartup(new BufferingApplicationStartup(10000));
+		}
+
+		application.run(args);
 	}
 
 }
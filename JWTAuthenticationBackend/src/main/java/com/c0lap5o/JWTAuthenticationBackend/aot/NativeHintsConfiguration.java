@@ -0,0 +1,20 @@
+package com.c0lap5o.JWTAuthenticationBackend.aot;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.LoginRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.SignupRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.JwtResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.MessageResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Configuration class registering the native image hints.
+ * DTOs are registered for JSON binding explicitly, because controllers returning ResponseEntity&lt;?&gt;
+ * hide their body types from Spring AOT.
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@RegisterReflectionForBinding({LoginRequest.class, SignupRequest.class, JwtResponse.class, MessageResponse.class})
+public class NativeHintsConfiguration {
+}
@@ -0,0 +1,79 @@
+package com.c0lap5o.JWTAuthenticationBackend.aot;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.AuthEvent;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Runtime hints for the GraalVM native image.
+ * They cover what Spring AOT cannot infer on its own: members of the Lombok-generated entities,
+ * the JJWT implementation and Jackson serializer that JJWT loads reflectively, and resources
+ * loaded by name at runtime.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+  /**
+   * JJWT implementation classes that jjwt-api instantiates by name.
+   */
+  private static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+          "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+          "io.jsonwebtoken.impl.DefaultJwtBuilder",
+          "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+          "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+          "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+          "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+          "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+          "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+          "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+          "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+          "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+          "io.jsonwebtoken.impl.security.JwksBridge",
+          "io.jsonwebtoken.impl.security.KeysBridge",
+          "io.jsonwebtoken.impl.security.StandardCurves",
+          "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+          "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+          "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+          "io.jsonwebtoken.impl.security.StandardKeyOperations",
+          "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+          "io.jsonwebtoken.jackson.io.JacksonSerializer",
+          "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+  );
+
+  /**
+   * Registers the hints.
+   *
+   * @param hints The RuntimeHints to contribute to.
+   * @param classLoader The class loader of the application.
+   */
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    // Entities: Hibernate reads and writes fields and instantiates them through their Lombok constructors
+    for (Class<?> entity : List.of(User.class, Role.class, AuthEvent.class)) {
+      hints.reflection().registerType(entity,
+              MemberCategory.DECLARED_FIELDS,
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    // JJWT: implementation classes looked up by name, and the Jackson serializer found through ServiceLoader
+    for (String type : JJWT_REFLECTIVE_TYPES) {
+      hints.reflection().registerType(TypeReference.of(type),
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_PUBLIC_METHODS,
+              MemberCategory.DECLARED_FIELDS);
+    }
+    hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+    // Resources loaded by name: cache configuration, seed data and the Swagger UI served by springdoc, whose assets
+    // sit in a versioned directory of the webjar
+    hints.resources().registerPattern("ehcache.xml");
+    hints.resources().registerPattern("test-data.sql");
+    hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+  }
+}
@@ -0,0 +1,191 @@
+package com.c0lap5o.JWTAuthenticationBackend.audit;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.AuthEvent;
+import com.c0lap5o.JWTAuthenticationBackend.model.EAuthEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail for sign-in and sign-up events.
+ * Request threads only publish into a lock-free ring buffer; a background writer drains it and batch-inserts
+ * the events into the "auth_events" table, so auditing adds no database round trip to the request.
+ *
+ * <p>Overflow policy: when the buffer is full, new events are dropped rather than blocking the request,
+ * and the number of dropped events is logged by the writer.
+ * Shutdown policy: on stop, the writer drains and writes every event still in the buffer before exiting.</p>
+ */
+@Slf4j
+@Component
+public class AuthAuditTrail implements SmartLifecycle {
+
+  /**
+   * Batch insert statement for audit events.
+   */
+  private static final String INSERT_SQL =
+          "INSERT INTO auth_events (event_type, username, remote_address, occurred_at) VALUES (?, ?, ?, ?)";
+
+  /**
+   * Buffer between request threads and the writer.
+   */
+  private final AuthEventRingBuffer buffer;
+
+  /**
+   * JdbcTemplate used for the batch inserts.
+   */
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * The maximum number of events written per batch.
+   */
+  private final int batchSize;
+
+  /**
+   * How long the writer sleeps when the buffer is empty, in milliseconds.
+   */
+  private final long flushIntervalMs;
+
+  /**
+   * The background writer thread.
+   */
+  private volatile Thread writer;
+
+  /**
+   * Whether the writer should keep running.
+   */
+  private volatile boolean running;
+
+  /**
+   * Constructor to initialize the audit trail.
+   *
+   * @param jdbcTemplate JdbcTemplate used for the batch inserts.
+   * @param bufferCapacity The capacity of the ring buffer.
+   * @param batchSize The maximum number of events written per batch.
+   * @param flushIntervalMs How long the writer sleeps when the buffer is empty, in milliseconds.
+   */
+  public AuthAuditTrail(JdbcTemplate jdbcTemplate,
+                        @Value("${app.audit.bufferCapacity:8192}") int bufferCapacity,
+                        @Value("${app.audit.batchSize:256}") int batchSize,
+                        @Value("${app.audit.flushIntervalMs:200}") long flushIntervalMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.buffer = new AuthEventRingBuffer(bufferCapacity);
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  /**
+   * Records an audit event without blocking.
+   *
+   * @param type The type of the event.
+   * @param username The username the event refers to.
+   * @param remoteAddress The remote address of the client.
+   */
+  public void record(EAuthEventType type, String username, String remoteAddress) {
+    buffer.offer(AuthEvent.builder()
+            .eventType(type)
+            .username(username)
+            .remoteAddress(remoteAddress)
+            .occurredAt(Instant.now())
+            .build());
+  }
+
+  /**
+   * Starts the background writer.
+   */
+  @Override
+  public void start() {
+    running = true;
+    Thread thread = new Thread(this::runWriter, "auth-audit-writer");
+    thread.setDaemon(true);
+    writer = thread;
+    thread.start();
+  }
+
+  /**
+   * Stops the background writer after it has written every buffered event.
+   */
+  @Override
+  public void stop() {
+    running = false;
+    Thread thread = writer;
+    if (thread == null) {
+      return;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writer = null;
+  }
+
+  /**
+   * Returns whether the background writer is running.
+   *
+   * @return True if the writer is running.
+   */
+  @Override
+  public boolean isRunning() {
+    return writer != null;
+  }
+
+  /**
+   * Loop of the background writer: drains the buffer in batches and sleeps when it is empty.
+   */
+  private void runWriter() {
+    List<AuthEvent> batch = new ArrayList<>(batchSize);
+    while (running) {
+      if (flushBatch(batch) == 0) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+      }
+    }
+
+    // Flush whatever is left before shutting down
+    while (flushBatch(batch) > 0) {
+      // Keep draining until the buffer is empty
+    }
+  }
+
+  /**
+   * Drains one batch from the buffer and writes it.
+   *
+   * @param batch The reusable list to drain into.
+   * @return The number of events drained.
+   */
+  private int flushBatch(List<AuthEvent> batch) {
+    long dropped = buffer.takeDroppedCount();
+    if (dropped > 0) {
+      log.warn("Audit buffer full, dropped {} events", dropped);
+    }
+
+    int drained = buffer.drainTo(batch, batchSize);
+    if (drained == 0) {
+      return 0;
+    }
+
+    try {
+      jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+        ps.setString(1, event.getEventType().name());
+        ps.setString(2, event.getUsername());
+        ps.setString(3, event.getRemoteAddress());
+        ps.setTimestamp(4, Timestamp.from(event.getOccurredAt()));
+      });
+    } catch (Exception e) {
+      // Never let a failed write kill the writer; the batch is lost but later events are still written
+      log.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+    } finally {
+      batch.clear();
+    }
+    return drained;
+  }
+}
@@ -0,0 +1,137 @@
+package com.c0lap5o.JWTAuthenticationBackend.audit;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.AuthEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer of audit events with many producers and a single consumer.
+ * Each slot carries a sequence number telling producers whether it is free and the consumer whether it is filled,
+ * so publishing an event is one CAS on the tail and never blocks.
+ * When the buffer is full, the new event is dropped and counted instead of waiting for the consumer.
+ */
+public class AuthEventRingBuffer {
+
+  /**
+   * The events, indexed by position modulo the capacity.
+   */
+  private final AtomicReferenceArray<AuthEvent> events;
+
+  /**
+   * The sequence number of each slot.
+   */
+  private final AtomicLongArray sequences;
+
+  /**
+   * Mask used to turn a position into a slot index.
+   */
+  private final int mask;
+
+  /**
+   * The next position to publish to, shared by all producers.
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * The number of events dropped because the buffer was full.
+   */
+  private final AtomicLong dropped = new AtomicLong();
+
+  /**
+   * The next position to consume, only accessed by the consumer thread.
+   */
+  private long head;
+
+  /**
+   * Constructor to initialize the ring buffer.
+   *
+   * @param capacity The minimum capacity; it is rounded up to the next power of two.
+   */
+  public AuthEventRingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30, was " + capacity);
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.events = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Publishes an event without blocking.
+   *
+   * @param event The event to publish.
+   * @return True if the event was published, false if it was dropped because the buffer is full.
+   */
+  public boolean offer(AuthEvent event) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long available = sequences.get(index) - position;
+      if (available == 0) {
+        // The slot is free: claim the position, then fill the slot and hand it to the consumer
+        if (tail.compareAndSet(position, position + 1)) {
+          events.set(index, event);
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (available < 0) {
+        // The consumer has not freed this slot yet, so the buffer is full
+        dropped.incrementAndGet();
+        return false;
+      } else {
+        // Another producer claimed this position first
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Moves up to the given number of published events into the target list.
+   * This method must only be called from the single consumer thread.
+   *
+   * @param target The list to add the events to.
+   * @param maxEvents The maximum number of events to move.
+   * @return The number of events moved.
+   */
+  public int drainTo(List<AuthEvent> target, int maxEvents) {
+    int drained = 0;
+    while (drained < maxEvents) {
+      int index = (int) (head & mask);
+      if (sequences.get(index) != head + 1) {
+        break; // The next slot has not been filled yet
+      }
+      target.add(events.get(index));
+      events.set(index, null);
+      sequences.set(index, head + mask + 1); // Free the slot for the next lap
+      head++;
+      drained++;
+    }
+    return drained;
+  }
+
+  /**
+   * Returns the capacity of the buffer.
+   *
+   * @return The capacity.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Returns and resets the number of events dropped since the last call.
+   *
+   * @return The number of dropped events.
+   */
+  public long takeDroppedCount() {
+    return dropped.getAndSet(0);
+  }
+}
@@ -0,0 +1,143 @@
+package com.c0lap5o.JWTAuthenticationBackend.controller;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.BulkRoleChangeRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.BulkRoleChangeResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.UserPageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RequiresRole;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.services.AdminUserService;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserExportFormat;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller for administering users.
+ * Every endpoint requires the ADMIN role.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = AuthTokenFilter.RENEWED_TOKEN_HEADER)
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin", description = "User administration APIs")
+@SecurityRequirement(name = "bearerAuth")
+@RequiresRole(ERole.ROLE_ADMIN)
+public class AdminController {
+
+  /**
+   * Service for browsing users.
+   */
+  @Autowired
+  private AdminUserService adminUserService;
+
+  /**
+   * Service streaming the user directory.
+   */
+  @Autowired
+  private UserExportService userExportService;
+
+  /**
+   * Returns a page of users with their roles, using keyset pagination on the user ID.
+   *
+   * @param after The cursor returned with the previous page, or null for the first page.
+   * @param role The role users must have, or null for all users.
+   * @param size The page size.
+   * @return A ResponseEntity containing the page of users and the cursor of the next page.
+   */
+  @Operation(summary = "List users", description = "List users with their roles, page by page, ordered by ID")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Successfully retrieved the page of users",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserPageResponse.class))),
+          @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping("/users")
+  public ResponseEntity<UserPageResponse> listUsers(
+          @Parameter(description = "The nextCursor of the previous page") @RequestParam(required = false) Long after,
+          @Parameter(description = "Only list users with this role") @RequestParam(required = false) ERole role,
+          @Parameter(description = "Page size, at most " + AdminUserService.MAX_PAGE_SIZE)
+          @RequestParam(defaultValue = "" + AdminUserService.DEFAULT_PAGE_SIZE) int size) {
+    // Fetch the page following the cursor
+    return ResponseEntity.ok(adminUserService.listUsers(after, role, size));
+  }
+
+  /**
+   * Grants a role to many users at once, selected by ID or by a role they already have.
+   *
+   * @param changeRequest The role and the selection of users.
+   * @return A ResponseEntity containing the number of users who were granted the role.
+   */
+  @Operation(summary = "Grant a role to users", description = "Grant a role to the listed users, or to every user "
+          + "with another role, in one set-based operation")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Role granted",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkRoleChangeResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Bad request - no role, or not exactly one selection of users"),
+          @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PostMapping("/users/roles/assign")
+  public ResponseEntity<BulkRoleChangeResponse> assignRole(@Valid @RequestBody BulkRoleChangeRequest changeRequest) {
+    // Apply the change with a single INSERT
+    return ResponseEntity.ok(adminUserService.assignRole(changeRequest));
+  }
+
+  /**
+   * Revokes a role from many users at once, selected by ID or by a role they already have.
+   *
+   * @param changeRequest The role and the selection of users.
+   * @return A ResponseEntity containing the number of users who lost the role.
+   */
+  @Operation(summary = "Revoke a role from users", description = "Revoke a role from the listed users, or from every "
+          + "user with another role, in one set-based operation")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Role revoked",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkRoleChangeResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Bad request - no role, or not exactly one selection of users"),
+          @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PostMapping("/users/roles/revoke")
+  public ResponseEntity<BulkRoleChangeResponse> revokeRole(@Valid @RequestBody BulkRoleChangeRequest changeRequest) {
+    // Apply the change with a single DELETE
+    return ResponseEntity.ok(adminUserService.revokeRole(changeRequest));
+  }
+
+  /**
+   * Streams every user with their roles, as newline-delimited JSON or CSV.
+   * Rows are written as they are read from the database, so the export starts immediately and uses flat memory.
+   *
+   * @param format The export format.
+   * @param response The HttpServletResponse the export is written to.
+   * @throws IOException If an I/O error occurs, e.g. when the client disconnects.
+   */
+  @Operation(summary = "Export users", description = "Stream all users with their roles as NDJSON or CSV")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "The user directory, one user per line"),
+          @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping("/users/export")
+  public void exportUsers(
+          @Parameter(description = "NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") UserExportFormat format,
+          HttpServletResponse response) throws IOException {
+    // Set the headers before the first row commits the response
+    response.setContentType(format.getContentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format.getExtension() + "\"");
+
+    userExportService.export(format, response.getOutputStream());
+  }
+}
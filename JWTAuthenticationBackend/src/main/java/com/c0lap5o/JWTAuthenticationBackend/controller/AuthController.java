@@ -1,6 +1,8 @@
 package com.c0lap5o.JWTAuthenticationBackend.controller;
 
+import com.c0lap5o.JWTAuthenticationBackend.audit.AuthAuditTrail;
 import com.c0lap5o.JWTAuthenticationBackend.dto.request.SignupRequest;
+import com.c0lap5o.JWTAuthenticationBackend.model.EAuthEventType;
 import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
 import com.c0lap5o.JWTAuthenticationBackend.model.Role;
 import com.c0lap5o.JWTAuthenticationBackend.model.User;
@@ -9,13 +11,21 @@ import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
 import com.c0lap5o.JWTAuthenticationBackend.dto.request.LoginRequest;
 import com.c0lap5o.JWTAuthenticationBackend.dto.response.JwtResponse;
 import com.c0lap5o.JWTAuthenticationBackend.dto.response.MessageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.UsernameAvailabilityResponse;
 import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.password.BreachedPasswordChecker;
+import com.c0lap5o.JWTAuthenticationBackend.services.IdempotentResponseStore;
+import com.c0lap5o.JWTAuthenticationBackend.services.LoginActivityTracker;
 import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UsernameExistenceFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -32,13 +42,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
  * Controller for handling user authentication and registration.
  */
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = IdempotentResponseStore.REPLAYED_HEADER)
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Authentication management APIs")
@@ -75,10 +87,41 @@ public class AuthController {
   @Autowired
   private JwtUtils jwtUtils;
 
+  /**
+   * Asynchronous audit trail for sign-in and sign-up events.
+   */
+  @Autowired
+  private AuthAuditTrail authAuditTrail;
+
+  /**
+   * Write-behind tracker for the last login time and login count of users.
+   */
+  @Autowired
+  private LoginActivityTracker loginActivityTracker;
+
+  /**
+   * Check of new passwords against the local breached password list.
+   */
+  @Autowired
+  private BreachedPasswordChecker breachedPasswordChecker;
+
+  /**
+   * Filter of the existing usernames, answering most lookups of unknown usernames without a query.
+   */
+  @Autowired
+  private UsernameExistenceFilter usernameExistenceFilter;
+
+  /**
+   * Store of the responses to signups sent with an Idempotency-Key header.
+   */
+  @Autowired
+  private IdempotentResponseStore idempotentResponseStore;
+
   /**
    * Authenticates a user and returns a JWT token.
    *
    * @param loginRequest The login request containing the username and password.
+   * @param request The HttpServletRequest, used for the client address in the audit trail.
    * @return A ResponseEntity containing the JWT token and user details.
    */
   @Operation(summary = "Authenticate user", description = "Authenticate a user and return a JWT token")
@@ -89,7 +132,13 @@ public class AuthController {
                   content = @Content(schema = @Schema(implementation = MessageResponse.class)))
   })
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+    // Reject unknown usernames the way the authentication manager would, but without loading the user and hashing;
+    // until the filter is ready every username might exist, so the authentication manager checks the database
+    if (!usernameExistenceFilter.mightExist(loginRequest.getUsername())) {
+      throw new BadCredentialsException("Bad credentials");
+    }
+
     // Authenticate the user using the authentication manager
     Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -109,6 +158,8 @@ public class AuthController {
             .collect(Collectors.toList());
 
     log.info("User {} signed in", loginRequest.getUsername());
+    authAuditTrail.record(EAuthEventType.SIGNIN, userDetails.getUsername(), request.getRemoteAddr());
+    loginActivityTracker.recordLogin(userDetails.getId());
 
     // Return the JWT response
     return ResponseEntity.ok(JwtResponse.builder()
@@ -120,22 +171,48 @@ public class AuthController {
   }
 
   /**
-   * Registers a new user account.
+   * Registers a new user account. With an Idempotency-Key header, retries of the same signup get the response of
+   * the first attempt instead of running it again.
    *
    * @param signUpRequest The signup request containing the user details.
+   * @param idempotencyKey The client-chosen key identifying the signup across retries, may be null.
+   * @param request The HttpServletRequest, used for the client address in the audit trail.
    * @return A ResponseEntity indicating the registration status.
    */
   @Operation(summary = "Register new user", description = "Register a new user account")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "User registered successfully",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
-          @ApiResponse(responseCode = "400", description = "Bad request - username or email already in use",
+          @ApiResponse(responseCode = "400", description = "Bad request - username or email already in use, or breached password",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
+          @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
+          @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different request",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class)))
   })
   @PostMapping("/signup")
-  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-    // Check if the username is already taken
-    if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest,
+                                        @RequestHeader(value = IdempotentResponseStore.KEY_HEADER, required = false) String idempotencyKey,
+                                        HttpServletRequest request) {
+    // Roles are a set, so sort them for a stable fingerprint
+    String roles = signUpRequest.getRole() == null ? null : String.join(",", new TreeSet<>(signUpRequest.getRole()));
+    String fingerprint = IdempotentResponseStore.fingerprint(signUpRequest.getUsername(), signUpRequest.getEmail(),
+            signUpRequest.getPassword(), roles);
+    return idempotentResponseStore.execute(idempotencyKey, fingerprint, () -> createUser(signUpRequest, request));
+  }
+
+  /**
+   * Creates the user account of a signup request.
+   *
+   * @param signUpRequest The signup request containing the user details.
+   * @param request The HttpServletRequest, used for the client address in the audit trail.
+   * @return A ResponseEntity indicating the registration status.
+   */
+  private ResponseEntity<?> createUser(SignupRequest signUpRequest, HttpServletRequest request) {
+    // Check if the username is already taken, without a query if the filter rules it out; a user the filter has not
+    // seen yet (from another instance) still fails the unique index on save below
+    if (usernameExistenceFilter.mightExist(signUpRequest.getUsername())
+            && userRepository.existsByUsername(signUpRequest.getUsername())) {
       return ResponseEntity
               .badRequest()
               .body(new MessageResponse("Error: Username is already taken!"));
@@ -148,6 +225,13 @@ public class AuthController {
               .body(new MessageResponse("Error: Email is already in use!"));
     }
 
+    // Check the password against known breaches before paying for hashing it
+    if (breachedPasswordChecker.isBreached(signUpRequest.getPassword())) {
+      return ResponseEntity
+              .badRequest()
+              .body(new MessageResponse("Error: Password has appeared in a data breach, please choose another one!"));
+    }
+
     // Create a new user account
     User user = User.builder()
             .username(signUpRequest.getUsername())
@@ -187,8 +271,48 @@ public class AuthController {
     }
 
     user.setRoles(roles);
-    userRepository.save(user);
+    try {
+      userRepository.save(user);
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent signup, possibly on another instance, took the username or email after the checks above
+      String violation = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+      if (violation.contains(User.USERNAME_INDEX)) {
+        return ResponseEntity
+                .badRequest()
+                .body(new MessageResponse("Error: Username is already taken!"));
+      }
+      if (violation.contains(User.EMAIL_INDEX)) {
+        return ResponseEntity
+                .badRequest()
+                .body(new MessageResponse("Error: Email is already in use!"));
+      }
+      throw e;
+    }
+    usernameExistenceFilter.add(user.getUsername());
     log.info("User Created: Username: {} Email: {} Role: {}", user.getUsername(), user.getEmail(), user.getRoles());
+    authAuditTrail.record(EAuthEventType.SIGNUP, user.getUsername(), request.getRemoteAddr());
     return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
   }
-}
\ No newline at end of file
+
+  /**
+   * Checks whether a username is still available, e.g. while it is typed into a signup form.
+   * Most unknown usernames are answered from the in-memory filter without a query.
+   *
+   * @param username The username to check.
+   * @return A ResponseEntity containing the username and whether it is available.
+   */
+  @Operation(summary = "Check username availability", description = "Check whether a username is still available")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Availability of the username",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsernameAvailabilityResponse.class)))
+  })
+  @GetMapping("/username-available")
+  public ResponseEntity<UsernameAvailabilityResponse> isUsernameAvailable(@RequestParam String username) {
+    // Only query if the filter does not rule the username out
+    boolean available = !usernameExistenceFilter.mightExist(username) || !userRepository.existsByUsername(username);
+    return ResponseEntity.ok(UsernameAvailabilityResponse.builder()
+            .username(username)
+            .available(available)
+            .build());
+  }
+}
@@ -1,7 +1,9 @@
 package com.c0lap5o.JWTAuthenticationBackend.controller;
 
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RequiresRole;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,7 +19,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
  * Controller for testing different user roles and access levels.
  * This controller is only active in the 'dev' profile.
  */
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = AuthTokenFilter.RENEWED_TOKEN_HEADER)
 @RestController
 @RequestMapping("/api/test")
 @Tag(name = "Test", description = "Test endpoints for different user roles")
@@ -40,7 +42,7 @@ public class TestController {
   }
 
   /**
-   * Returns user content accessible to users with the USER, MODERATOR, or ADMIN role.
+   * Returns user content accessible to users reaching the USER role (USER, MODERATOR, or ADMIN).
    *
    * @return A string indicating user content.
    */
@@ -51,25 +53,25 @@ public class TestController {
   })
   @SecurityRequirement(name = "bearerAuth")  // Specify the security requirement
   @GetMapping("/user")
-  @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+  @RequiresRole(ERole.ROLE_USER)
   public String userAccess() {
     // Return a message indicating user content
     return "User Content.";
   }
 
   /**
-   * Returns moderator content accessible only to users with the MODERATOR role.
+   * Returns moderator content accessible to users reaching the MODERATOR role (MODERATOR or ADMIN).
    *
    * @return A string indicating moderator content.
    */
-  @Operation(summary = "Get moderator content", description = "Accessible to users with MODERATOR role")
+  @Operation(summary = "Get moderator content", description = "Accessible to users with MODERATOR or ADMIN role")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "Successfully retrieved moderator content"),
           @ApiResponse(responseCode = "403", description = "Access denied")
   })
   @SecurityRequirement(name = "bearerAuth")  // Specify the security requirement
   @GetMapping("/mod")
-  @PreAuthorize("hasRole('MODERATOR')")
+  @RequiresRole(ERole.ROLE_MODERATOR)
   public String moderatorAccess() {
     // Return a message indicating moderator content
     return "Moderator Board.";
@@ -87,7 +89,7 @@ public class TestController {
   })
   @SecurityRequirement(name = "bearerAuth")  // Specify the security requirement
   @GetMapping("/admin")
-  @PreAuthorize("hasRole('ADMIN')")
+  @RequiresRole(ERole.ROLE_ADMIN)
   public String adminAccess() {
     // Return a message indicating admin content
     return "Admin Board.";
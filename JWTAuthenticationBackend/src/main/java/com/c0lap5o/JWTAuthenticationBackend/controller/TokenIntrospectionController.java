@@ -0,0 +1,64 @@
+package com.c0lap5o.JWTAuthenticationBackend.controller;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.IntrospectBatchRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.IntrospectBatchResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.MessageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RequiresRole;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.services.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller for introspecting JWT tokens on behalf of gateways and services that cannot verify them locally.
+ * Callers must authenticate with a token of their own that carries ROLE_GATEWAY (which ROLE_ADMIN reaches).
+ */
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = AuthTokenFilter.RENEWED_TOKEN_HEADER)
+@RestController
+@RequestMapping("/api/auth/introspect")
+@Tag(name = "Authentication", description = "Authentication management APIs")
+@RequiresRole(ERole.ROLE_GATEWAY)
+public class TokenIntrospectionController {
+
+  /**
+   * Service verifying batches of JWT tokens.
+   */
+  @Autowired
+  private TokenIntrospectionService tokenIntrospectionService;
+
+  /**
+   * Verifies a batch of tokens and returns the result of each one.
+   *
+   * @param introspectRequest The request containing the tokens to introspect.
+   * @return A ResponseEntity containing the introspection results, in the order of the tokens.
+   */
+  @Operation(summary = "Introspect tokens", description = "Verify up to 1000 JWT tokens and return, for each one, "
+          + "whether it is active along with its subject, roles and expiration time")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Tokens introspected",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = IntrospectBatchResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Bad request - no tokens or too many tokens",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
+          @ApiResponse(responseCode = "401", description = "Unauthorized - no valid gateway token"),
+          @ApiResponse(responseCode = "403", description = "Access denied - the caller lacks ROLE_GATEWAY")
+  })
+  @SecurityRequirement(name = "bearerAuth")
+  @PostMapping("/batch")
+  public ResponseEntity<IntrospectBatchResponse> introspectBatch(@Valid @RequestBody IntrospectBatchRequest introspectRequest) {
+    // Verify the tokens and return the results in request order
+    return ResponseEntity.ok(IntrospectBatchResponse.builder()
+            .results(tokenIntrospectionService.introspect(introspectRequest.getTokens()))
+            .build());
+  }
+}
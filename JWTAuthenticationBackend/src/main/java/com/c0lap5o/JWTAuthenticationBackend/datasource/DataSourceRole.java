@@ -0,0 +1,9 @@
+package com.c0lap5o.JWTAuthenticationBackend.datasource;
+
+/**
+ * Lookup keys of the target data sources behind the ReadWriteRoutingDataSource.
+ */
+public enum DataSourceRole {
+  PRIMARY,
+  REPLICA
+}
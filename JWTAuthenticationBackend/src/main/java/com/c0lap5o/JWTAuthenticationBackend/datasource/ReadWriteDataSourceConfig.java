@@ -0,0 +1,89 @@
+package com.c0lap5o.JWTAuthenticationBackend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for read/write DataSource routing.
+ * It is only active when a replica is configured under app.datasource.replica; otherwise the single
+ * auto-configured DataSource is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReadWriteDataSourceConfig {
+
+  /**
+   * Bean to bind the primary connection settings from spring.datasource.
+   *
+   * @return The DataSourceProperties of the primary.
+   */
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource")
+  public DataSourceProperties primaryDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  /**
+   * Bean to bind the replica connection settings from app.datasource.replica.
+   *
+   * @return The DataSourceProperties of the replica.
+   */
+  @Bean
+  @ConfigurationProperties("app.datasource.replica")
+  public DataSourceProperties replicaDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  /**
+   * Bean to create the connection pool of the primary.
+   *
+   * @param properties The DataSourceProperties of the primary.
+   * @return The primary connection pool.
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  /**
+   * Bean to create the connection pool of the replica.
+   *
+   * @param properties The DataSourceProperties of the replica.
+   * @return The replica connection pool.
+   */
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  /**
+   * Bean to create the DataSource used by the application, routing read-only transactions to the replica.
+   *
+   * @param primary The primary connection pool.
+   * @param replica The replica connection pool.
+   * @return The routing DataSource, wrapped so the route is chosen when the first statement runs.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                               @Qualifier("replicaDataSource") DataSource replica) {
+    return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+  }
+}
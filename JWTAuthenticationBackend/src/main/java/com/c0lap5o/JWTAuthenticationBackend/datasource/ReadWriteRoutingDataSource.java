@@ -0,0 +1,39 @@
+package com.c0lap5o.JWTAuthenticationBackend.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routing DataSource that sends read-only transactions to the replica and everything else to the primary.
+ * It must be wrapped in a LazyConnectionDataSourceProxy, so the connection is only fetched once the
+ * transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  /**
+   * Constructor to initialize the routing DataSource with its two targets.
+   *
+   * @param primary The DataSource of the primary, used for writes and non-transactional work.
+   * @param replica The DataSource of the read replica, used for read-only transactions.
+   */
+  public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+    setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Determines the target DataSource from the read-only flag of the current transaction.
+   *
+   * @return REPLICA for read-only transactions, PRIMARY otherwise.
+   */
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? DataSourceRole.REPLICA
+            : DataSourceRole.PRIMARY;
+  }
+}
@@ -0,0 +1,59 @@
+package com.c0lap5o.JWTAuthenticationBackend.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Component for retrying replica misses on the primary.
+ * A row written moments ago (e.g. a user who just signed up) may not have reached the replica yet,
+ * so a lookup that finds nothing on the replica is repeated once in a new read-write transaction, which is
+ * always routed to the primary.
+ */
+@Component
+public class ReplicaLagFallback {
+
+  /**
+   * Template for running queries in a new transaction on the primary.
+   */
+  private final TransactionTemplate primaryTransaction;
+
+  /**
+   * Whether a replica is configured; without one a retry would just repeat the same query.
+   */
+  private final boolean enabled;
+
+  /**
+   * Constructor to initialize the fallback.
+   *
+   * @param transactionManager The transaction manager of the application.
+   * @param replicaUrl The replica url, empty when no replica is configured.
+   */
+  public ReplicaLagFallback(PlatformTransactionManager transactionManager,
+                            @Value("${app.datasource.replica.url:}") String replicaUrl) {
+    this.primaryTransaction = new TransactionTemplate(transactionManager);
+    this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.primaryTransaction.setReadOnly(false);
+    this.enabled = !replicaUrl.isBlank();
+  }
+
+  /**
+   * Runs the given query on the primary, if a replica is configured.
+   * It should be called after the same query found nothing on the replica.
+   *
+   * @param query The query to run.
+   * @param <T> The result type.
+   * @return The result from the primary, or an empty Optional when no replica is configured.
+   */
+  public <T> Optional<T> retryOnPrimary(Supplier<Optional<T>> query) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    return primaryTransaction.execute(status -> query.get());
+  }
+}
@@ -0,0 +1,56 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.request;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request class for granting or revoking a role for many users at once.
+ * The users are selected either by ID or by a role they already have, but not both.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRoleChangeRequest {
+
+  /**
+   * The maximum number of user IDs accepted in one request.
+   */
+  public static final int MAX_USER_IDS = 10000;
+
+  /**
+   * The role to grant or revoke.
+   * This field is required.
+   */
+  @NotNull
+  private ERole role;
+
+  /**
+   * The IDs of the users to change, holding at most {@value #MAX_USER_IDS} IDs.
+   */
+  @Size(min = 1, max = MAX_USER_IDS)
+  private List<Long> userIds;
+
+  /**
+   * Selects every user who has this role instead of listing IDs.
+   */
+  private ERole withRole;
+
+  /**
+   * Checks that exactly one way of selecting users is given.
+   *
+   * @return True if either userIds or withRole is set, but not both.
+   */
+  @AssertTrue(message = "Exactly one of userIds or withRole must be given")
+  public boolean isSelectionValid() {
+    return (userIds == null) != (withRole == null);
+  }
+}
@@ -0,0 +1,33 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request class for introspecting a batch of JWT tokens in a single call.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectBatchRequest {
+
+  /**
+   * The maximum number of tokens accepted in one batch.
+   */
+  public static final int MAX_TOKENS = 1000;
+
+  /**
+   * The tokens to introspect.
+   * This field is required, and holds at most {@value #MAX_TOKENS} tokens.
+   */
+  @NotEmpty
+  @Size(max = MAX_TOKENS)
+  private List<String> tokens;
+}
@@ -0,0 +1,49 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response class for a user as listed in the admin API.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminUserResponse {
+
+  /**
+   * The ID of the user.
+   */
+  private Long id;
+
+  /**
+   * The username of the user.
+   */
+  private String username;
+
+  /**
+   * The email address of the user.
+   */
+  private String email;
+
+  /**
+   * A list of roles assigned to the user.
+   */
+  private List<String> roles;
+
+  /**
+   * The time of the user's last successful sign-in, or null if the user never signed in.
+   */
+  private Instant lastLoginAt;
+
+  /**
+   * The number of successful sign-ins of the user.
+   */
+  private long loginCount;
+}
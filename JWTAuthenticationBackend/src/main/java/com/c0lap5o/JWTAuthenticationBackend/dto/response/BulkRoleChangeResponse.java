@@ -0,0 +1,28 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response class for a bulk role change.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRoleChangeResponse {
+
+  /**
+   * The role that was granted or revoked.
+   */
+  private ERole role;
+
+  /**
+   * The number of users whose roles actually changed.
+   * Users who already had (or did not have) the role, and unknown IDs, are not counted.
+   */
+  private int affected;
+}
@@ -0,0 +1,23 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response class for batch token introspection.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IntrospectBatchResponse {
+
+  /**
+   * The introspection results, in the same order as the tokens of the request.
+   */
+  private List<TokenIntrospection> results;
+}
@@ -0,0 +1,52 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response class for the introspection result of a single token.
+ * Field names follow the OAuth 2.0 token introspection response (RFC 7662), and only "active" is set for
+ * inactive tokens.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+
+  /**
+   * Whether the token is valid and not expired.
+   */
+  private boolean active;
+
+  /**
+   * The subject (username) of the token.
+   */
+  private String sub;
+
+  /**
+   * The roles carried by the token.
+   */
+  private List<String> roles;
+
+  /**
+   * The expiration time of the token, in seconds since the epoch.
+   */
+  private Long exp;
+
+  /**
+   * Creates the result for an invalid, expired or empty token.
+   * It is a new instance every time, because the class is mutable and a shared one could be changed by any caller.
+   *
+   * @return A new inactive result.
+   */
+  public static TokenIntrospection inactive() {
+    return new TokenIntrospection(false, null, null, null);
+  }
+}
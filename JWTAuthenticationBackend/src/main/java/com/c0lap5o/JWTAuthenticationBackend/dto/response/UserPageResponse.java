@@ -0,0 +1,28 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response class for one keyset page of users.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageResponse {
+
+  /**
+   * The users of the page, ordered by ID.
+   */
+  private List<AdminUserResponse> users;
+
+  /**
+   * The cursor to pass as "after" to fetch the next page, or null if this is the last page.
+   */
+  private Long nextCursor;
+}
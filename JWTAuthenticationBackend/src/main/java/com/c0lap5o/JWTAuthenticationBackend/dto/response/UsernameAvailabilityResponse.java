@@ -0,0 +1,26 @@
+package com.c0lap5o.JWTAuthenticationBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response class for a username availability check.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsernameAvailabilityResponse {
+
+  /**
+   * The username that was checked.
+   */
+  private String username;
+
+  /**
+   * Whether no user has the username yet, ignoring case.
+   */
+  private boolean available;
+}
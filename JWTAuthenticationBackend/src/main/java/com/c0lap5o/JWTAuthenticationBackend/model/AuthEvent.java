@@ -0,0 +1,56 @@
+package com.c0lap5o.JWTAuthenticationBackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing an entry of the authentication audit trail.
+ * This class is mapped to the "auth_events" table in the database.
+ * Rows are written in batches by the AuthAuditTrail, never through JPA.
+ */
+@Entity
+@Table(name = "auth_events",
+        indexes = @Index(name = "ix_auth_events_occurred_at", columnList = "occurred_at"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthEvent {
+
+  /**
+   * The unique identifier for the event.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * The type of the event, stored as a string with a maximum length of 20 characters.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", length = 20, nullable = false)
+  private EAuthEventType eventType;
+
+  /**
+   * The username the event refers to.
+   */
+  @Column(name = "username", length = 20, nullable = false)
+  private String username;
+
+  /**
+   * The remote address of the client that triggered the event.
+   */
+  @Column(name = "remote_address", length = 45)
+  private String remoteAddress;
+
+  /**
+   * The time at which the event occurred.
+   */
+  @Column(name = "occurred_at", nullable = false)
+  private Instant occurredAt;
+}
@@ -0,0 +1,6 @@
+package com.c0lap5o.JWTAuthenticationBackend.model;
+
+public enum EAuthEventType {
+  SIGNIN,
+  SIGNUP
+}
@@ -3,5 +3,15 @@ package com.c0lap5o.JWTAuthenticationBackend.model;
 public enum ERole {
   ROLE_USER,
   ROLE_MODERATOR,
-  ROLE_ADMIN
+  ROLE_ADMIN,
+  ROLE_GATEWAY;
+
+  /**
+   * Returns the single bit representing this role in a role bitset.
+   *
+   * @return The bit mask of this role.
+   */
+  public int mask() {
+    return 1 << ordinal();
+  }
 }
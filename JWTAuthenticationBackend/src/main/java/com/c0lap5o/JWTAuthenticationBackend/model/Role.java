@@ -5,13 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 /**
  * Entity class representing a Role in the application.
  * This class is mapped to the "roles" table in the database.
+ * Roles are reference data that never change at runtime, so they are kept read-only in the second-level cache.
  */
 @Entity
 @Table(name = "roles")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Data
 @Builder
 @AllArgsConstructor
@@ -4,30 +4,50 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 /**
  * Entity class representing a User in the application.
  * This class is mapped to the "users" table in the database.
+ * Users are read far more often than they are written, so they and their roles are kept in the second-level cache.
+ * Usernames and emails are looked up and kept unique case-insensitively, through lowercase copies with unique indexes.
  */
 @Entity
 @Table(name = "users",
-        uniqueConstraints = {
-                @UniqueConstraint(columnNames = "username"),
-                @UniqueConstraint(columnNames = "email")
+        indexes = {
+                @Index(name = User.USERNAME_INDEX, columnList = "username_normalized", unique = true),
+                @Index(name = User.EMAIL_INDEX, columnList = "email_normalized", unique = true)
         })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
 
+  /**
+   * The name of the unique index on the normalized username.
+   */
+  public static final String USERNAME_INDEX = "ux_users_username_normalized";
+
+  /**
+   * The name of the unique index on the normalized email.
+   */
+  public static final String EMAIL_INDEX = "ux_users_email_normalized";
+
   /**
    * The unique identifier for the user.
    */
@@ -52,6 +72,22 @@ public class User {
   @Email
   private String email;
 
+  /**
+   * The lowercase form of the username, used for lookups and uniqueness.
+   * This field is derived from the username whenever the user is saved.
+   */
+  @Setter(AccessLevel.NONE)
+  @Column(name = "username_normalized", nullable = false, length = 20)
+  private String usernameNormalized;
+
+  /**
+   * The lowercase form of the email address, used for lookups and uniqueness.
+   * This field is derived from the email address whenever the user is saved.
+   */
+  @Setter(AccessLevel.NONE)
+  @Column(name = "email_normalized", nullable = false, length = 50)
+  private String emailNormalized;
+
   /**
    * The password of the user.
    * This field is required and cannot be blank, with a maximum length of 120 characters.
@@ -63,10 +99,47 @@ public class User {
   /**
    * The roles assigned to the user.
    * This field establishes a many-to-many relationship with the Role entity.
+   * The join table is indexed on (user_id, role_id), so loading a user's roles reads the index alone.
    */
   @ManyToMany(fetch = FetchType.LAZY)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @JoinTable(name = "user_roles",
           joinColumns = @JoinColumn(name = "user_id"),
-          inverseJoinColumns = @JoinColumn(name = "role_id"))
+          inverseJoinColumns = @JoinColumn(name = "role_id"),
+          indexes = @Index(name = "ix_user_roles_user_id_role_id", columnList = "user_id, role_id"))
   private Set<Role> roles = new HashSet<>();
-}
\ No newline at end of file
+
+  /**
+   * The time of the user's last successful sign-in.
+   * This field is only written by the LoginActivityTracker, so Hibernate never includes it in updates.
+   */
+  @Column(name = "last_login_at", updatable = false)
+  private Instant lastLoginAt;
+
+  /**
+   * The number of successful sign-ins of the user.
+   * This field is only written by the LoginActivityTracker, so Hibernate never includes it in updates.
+   */
+  @Column(name = "login_count", nullable = false, updatable = false)
+  private long loginCount;
+
+  /**
+   * Normalizes a username or email address for lookups.
+   *
+   * @param value The username or email address.
+   * @return The lowercase form of the value, or null if the value is null.
+   */
+  public static String normalize(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Derives the normalized lookup columns before the user is inserted or updated.
+   */
+  @PrePersist
+  @PreUpdate
+  void normalizeLookupColumns() {
+    usernameNormalized = normalize(username);
+    emailNormalized = normalize(email);
+  }
+}
@@ -2,7 +2,10 @@ package com.c0lap5o.JWTAuthenticationBackend.repository;
 
 import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
 import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -16,9 +19,11 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
 
   /**
    * Finds a Role by its name.
+   * The result is kept in the query cache, since roles never change at runtime.
    *
    * @param name The name of the role to find (e.g., ROLE_USER, ROLE_MODERATOR, ROLE_ADMIN).
    * @return An Optional containing the Role if found, or an empty Optional otherwise.
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Optional<Role> findByName(ERole name);
 }
\ No newline at end of file
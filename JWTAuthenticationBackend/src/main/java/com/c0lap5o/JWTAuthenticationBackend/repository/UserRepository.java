@@ -1,12 +1,21 @@
 package com.c0lap5o.JWTAuthenticationBackend.repository;
 
 import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing User entities.
@@ -15,26 +24,181 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Checks if a user with the given username already exists in the database.
+     * Checks if a user with the given username already exists in the database, ignoring case.
      *
      * @param username The username to check.
      * @return True if a user with the given username exists, false otherwise.
      */
-    boolean existsByUsername(@NotBlank String username);
+    default boolean existsByUsername(@NotBlank String username) {
+        return existsByUsernameNormalized(User.normalize(username));
+    }
 
     /**
-     * Checks if a user with the given email already exists in the database.
+     * Checks if a user with the given email already exists in the database, ignoring case.
      *
      * @param email The email to check.
      * @return True if a user with the given email exists, false otherwise.
      */
-    boolean existsByEmail(@NotBlank @Size(max = 50) @Email String email);
+    default boolean existsByEmail(@NotBlank @Size(max = 50) @Email String email) {
+        return existsByEmailNormalized(User.normalize(email));
+    }
 
     /**
-     * Finds a user by their username.
+     * Finds a user by their username, ignoring case.
      *
      * @param username The username of the user to find.
      * @return An Optional containing the User if found, or an empty Optional otherwise.
      */
-    Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+    default Optional<User> findByUsername(String username) {
+        return findByUsernameNormalized(User.normalize(username));
+    }
+
+    /**
+     * Checks if a user with the given normalized username exists, using the unique index on the normalized column.
+     *
+     * @param usernameNormalized The lowercase username to check.
+     * @return True if a user with the given username exists, false otherwise.
+     */
+    boolean existsByUsernameNormalized(String usernameNormalized);
+
+    /**
+     * Checks if a user with the given normalized email exists, using the unique index on the normalized column.
+     *
+     * @param emailNormalized The lowercase email to check.
+     * @return True if a user with the given email exists, false otherwise.
+     */
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    /**
+     * Finds a user by their normalized username, using the unique index on the normalized column.
+     * The result is kept in the query cache, so repeated lookups are served from the second-level cache.
+     *
+     * @param usernameNormalized The lowercase username of the user to find.
+     * @return An Optional containing the User if found, or an empty Optional otherwise.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
+
+    /**
+     * Returns one keyset page of users with their roles, in a single query.
+     * The page is cut from the primary key with "id > afterId ORDER BY id LIMIT n" before the roles are joined,
+     * so every page costs the same whatever its depth, and the limit applies to users rather than role rows.
+     *
+     * @param afterId The ID of the last user of the previous page, or 0 for the first page.
+     * @param role The role name users must have (e.g., ROLE_ADMIN), or null for all users.
+     * @param limit The maximum number of users in the page.
+     * @return The users of the page and their roles, one row per user and role, ordered by user ID.
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.email AS email,"
+            + " u.last_login_at AS lastLoginAt, u.login_count AS loginCount, r.name AS role"
+            + " FROM (SELECT p.id, p.username, p.email, p.last_login_at, p.login_count FROM users p"
+            + "       WHERE p.id > :afterId"
+            + "       AND (:role IS NULL OR EXISTS (SELECT 1 FROM user_roles fr JOIN roles f ON f.id = fr.role_id"
+            + "                                     WHERE fr.user_id = p.id AND f.name = :role))"
+            + "       ORDER BY p.id LIMIT :limit) u"
+            + " LEFT JOIN user_roles ur ON ur.user_id = u.id"
+            + " LEFT JOIN roles r ON r.id = ur.role_id"
+            + " ORDER BY u.id",
+            nativeQuery = true)
+    List<UserRoleRow> findPageWithRoles(@Param("afterId") long afterId, @Param("role") String role,
+                                        @Param("limit") int limit);
+
+    /**
+     * Streams all users with their roles, ordered by ID, through a forward-only cursor.
+     * Rows are fetched from the driver 1000 at a time, the entities are read-only and bypass the second-level
+     * cache, so callers can walk any number of users with flat memory as long as they clear the persistence
+     * context as they go. The stream must be consumed inside a transaction and closed.
+     *
+     * @return A stream of all users, with their roles initialized.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles ORDER BY u.id")
+    Stream<User> streamAllWithRoles();
+
+    /**
+     * Streams the IDs and normalized usernames of the users created after the given ID, ordered by ID, through a
+     * forward-only cursor. Only the two columns are read and no entities are managed, so the whole table can be
+     * scanned with flat memory. The stream must be consumed inside a transaction and closed.
+     *
+     * @param afterId The ID after which to start, or 0 for all users.
+     * @return A stream of the users' IDs and normalized usernames.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS id, u.usernameNormalized AS username FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    Stream<UsernameRow> streamUsernamesAfter(@Param("afterId") long afterId);
+
+    /**
+     * Grants a role to the given users in one set-based INSERT, skipping users that already have it.
+     * The statement declares "user_roles" as its only query space, so Hibernate invalidates the cached query results
+     * that read that table instead of the whole second-level cache. Cached role collections are not covered by
+     * this and must be evicted by the caller.
+     *
+     * @param role The name of the role to grant (e.g., ROLE_MODERATOR).
+     * @param userIds The IDs of the users; unknown IDs are ignored.
+     * @return The number of users who were granted the role.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "INSERT INTO user_roles (user_id, role_id)"
+            + " SELECT u.id, r.id FROM users u JOIN roles r ON r.name = :role"
+            + " WHERE u.id IN (:userIds)"
+            + " AND NOT EXISTS (SELECT 1 FROM user_roles x WHERE x.user_id = u.id AND x.role_id = r.id)",
+            nativeQuery = true)
+    int assignRoleToUsers(@Param("role") String role, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Grants a role to every user who has another role, in one set-based INSERT.
+     *
+     * @param role The name of the role to grant.
+     * @param withRole The name of the role selecting the users.
+     * @return The number of users who were granted the role.
+     * @see #assignRoleToUsers(String, Collection)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "INSERT INTO user_roles (user_id, role_id)"
+            + " SELECT f.user_id, r.id FROM user_roles f JOIN roles fr ON fr.id = f.role_id JOIN roles r ON r.name = :role"
+            + " WHERE fr.name = :withRole"
+            + " AND NOT EXISTS (SELECT 1 FROM user_roles x WHERE x.user_id = f.user_id AND x.role_id = r.id)",
+            nativeQuery = true)
+    int assignRoleToUsersWithRole(@Param("role") String role, @Param("withRole") String withRole);
+
+    /**
+     * Revokes a role from the given users in one set-based DELETE.
+     *
+     * @param role The name of the role to revoke.
+     * @param userIds The IDs of the users; unknown IDs are ignored.
+     * @return The number of users who lost the role.
+     * @see #assignRoleToUsers(String, Collection)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles"
+            + " WHERE role_id = (SELECT r.id FROM roles r WHERE r.name = :role)"
+            + " AND user_id IN (:userIds)",
+            nativeQuery = true)
+    int revokeRoleFromUsers(@Param("role") String role, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Revokes a role from every user who has another role, in one set-based DELETE.
+     * The selecting subquery is wrapped in a derived table, because MySQL and MariaDB reject a DELETE whose
+     * subquery reads the target table directly.
+     *
+     * @param role The name of the role to revoke.
+     * @param withRole The name of the role selecting the users.
+     * @return The number of users who lost the role.
+     * @see #assignRoleToUsers(String, Collection)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles"
+            + " WHERE role_id = (SELECT r.id FROM roles r WHERE r.name = :role)"
+            + " AND user_id IN (SELECT t.user_id FROM (SELECT f.user_id FROM user_roles f"
+            + "                 JOIN roles fr ON fr.id = f.role_id WHERE fr.name = :withRole) t)",
+            nativeQuery = true)
+    int revokeRoleFromUsersWithRole(@Param("role") String role, @Param("withRole") String withRole);
+}
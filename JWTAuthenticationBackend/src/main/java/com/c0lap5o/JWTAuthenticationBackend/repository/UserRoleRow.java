@@ -0,0 +1,52 @@
+package com.c0lap5o.JWTAuthenticationBackend.repository;
+
+/**
+ * Projection of one user and one of their roles, as returned by the flat user-with-roles queries.
+ * A user with several roles spans several consecutive rows, and a user without roles has one row with a null role.
+ */
+public interface UserRoleRow {
+
+  /**
+   * Returns the ID of the user.
+   *
+   * @return The user ID.
+   */
+  Long getId();
+
+  /**
+   * Returns the username of the user.
+   *
+   * @return The username.
+   */
+  String getUsername();
+
+  /**
+   * Returns the email address of the user.
+   *
+   * @return The email address.
+   */
+  String getEmail();
+
+  /**
+   * Returns the time of the user's last successful sign-in.
+   * Its type depends on the JDBC driver (e.g., Timestamp, LocalDateTime or OffsetDateTime), because native query
+   * results are not converted by Hibernate.
+   *
+   * @return The last sign-in time, or null if the user never signed in.
+   */
+  Object getLastLoginAt();
+
+  /**
+   * Returns the number of successful sign-ins of the user.
+   *
+   * @return The sign-in count.
+   */
+  Long getLoginCount();
+
+  /**
+   * Returns the name of the role on this row.
+   *
+   * @return The role name (e.g., ROLE_USER), or null if the user has no roles.
+   */
+  String getRole();
+}
@@ -0,0 +1,21 @@
+package com.c0lap5o.JWTAuthenticationBackend.repository;
+
+/**
+ * Projection of the ID and normalized username of a user, as streamed to build the username existence filter.
+ */
+public interface UsernameRow {
+
+  /**
+   * Returns the ID of the user.
+   *
+   * @return The user ID.
+   */
+  Long getId();
+
+  /**
+   * Returns the lowercase username of the user.
+   *
+   * @return The normalized username.
+   */
+  String getUsername();
+}
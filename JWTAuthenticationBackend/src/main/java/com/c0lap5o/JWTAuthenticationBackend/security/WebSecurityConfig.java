@@ -1,13 +1,36 @@
 package com.c0lap5o.JWTAuthenticationBackend.security;
 
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RequiresRole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleAuthorizationManager;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleMask;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AccessDeniedHandlerJwt;
 import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthEntryPointJwt;
 import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtKeyProperties;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.TokenVerifyFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.VerifiedTokenCache;
 import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.TracingPasswordEncoder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,25 +40,54 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 /**
  * Configuration class for Spring Security settings.
- * This class enables method security and configures the security filter chain.
+ * This class enables method security, binds the JWT key ring configuration and configures the security filter chain.
  */
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(JwtKeyProperties.class)
 public class WebSecurityConfig {
 
   /**
-   * Array of endpoints that are allowed without authentication.
+   * Matcher for the token introspection endpoints, which live under /api/auth but are only open to authenticated
+   * gateways, so they cannot be used anonymously as a token oracle or to make the server check 1000 signatures per
+   * request.
+   */
+  private static final RequestMatcher INTROSPECTION_ENDPOINTS = antMatcher("/api/auth/introspect/**");
+
+  /**
+   * Matcher for public endpoints that never need a JWT.
+   * It is compiled once and shared with the AuthTokenFilter, which skips token processing for these routes.
    */
-  private final String[] allowedEndpoints = {
-          "/api/auth/**",
-          "/api/test/**",
-          "/swagger-ui/**",
-          "/v3/api-docs/**",
-          "/api-docs/**"
-  };
+  private static final RequestMatcher PUBLIC_ENDPOINTS = new AndRequestMatcher(
+          new OrRequestMatcher(
+                  antMatcher("/api/auth/**"),
+                  antMatcher("/swagger-ui/**"),
+                  antMatcher("/v3/api-docs/**"),
+                  antMatcher("/api-docs/**"),
+                  antMatcher("/actuator/health"),
+                  antMatcher("/actuator/health/**")),
+          new NegatedRequestMatcher(INTROSPECTION_ENDPOINTS)
+  );
+
+  /**
+   * Matcher for endpoints that are allowed without authentication at the URL level,
+   * but may still be protected by method security and therefore still go through the AuthTokenFilter.
+   */
+  private static final RequestMatcher METHOD_SECURED_ENDPOINTS = antMatcher("/api/test/**");
+
+  /**
+   * Matcher for the actuator endpoints; all but health, which is public, are only open to admins.
+   */
+  private static final RequestMatcher ACTUATOR_ENDPOINTS = antMatcher("/actuator/**");
 
   /**
    * Service class for loading user details.
@@ -49,6 +101,18 @@ public class WebSecurityConfig {
   @Autowired
   private AuthEntryPointJwt unauthorizedHandler;
 
+  /**
+   * Handler for authenticated requests that lack the required authority.
+   */
+  @Autowired
+  private AccessDeniedHandlerJwt accessDeniedHandler;
+
+  /**
+   * Tracer for the authentication pipeline.
+   */
+  @Autowired
+  private AuthTracing tracing;
+
   /**
    * Bean to create an instance of the AuthTokenFilter.
    *
@@ -56,7 +120,62 @@ public class WebSecurityConfig {
    */
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
-    return new AuthTokenFilter();
+    return new AuthTokenFilter(PUBLIC_ENDPOINTS);
+  }
+
+  /**
+   * Bean to serve /api/auth/verify from a servlet filter ahead of every other filter, including the security
+   * filter chain, so proxy subrequests skip straight to token verification. The filter itself checks that the
+   * caller is the proxy, by the secret they share.
+   *
+   * @param verifiedTokenCache Cache of verified tokens.
+   * @param proxySecret The secret the proxy sends in the X-Verify-Secret header, empty to disable the endpoint.
+   * @return The registration of the TokenVerifyFilter.
+   */
+  @Bean
+  public FilterRegistrationBean<TokenVerifyFilter> tokenVerifyFilter(VerifiedTokenCache verifiedTokenCache,
+                                                                     @Value("${app.verify.proxySecret:}") String proxySecret) {
+    FilterRegistrationBean<TokenVerifyFilter> registration =
+            new FilterRegistrationBean<>(new TokenVerifyFilter(verifiedTokenCache, proxySecret));
+    registration.addUrlPatterns(TokenVerifyFilter.PATH);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  /**
+   * Bean to expose the role hierarchy (ADMIN > MODERATOR > USER).
+   *
+   * @return The RoleHierarchy instance.
+   */
+  @Bean
+  public static RoleHierarchy roleHierarchy() {
+    return RoleMask.HIERARCHY;
+  }
+
+  /**
+   * Bean to make remaining @PreAuthorize expressions honour the role hierarchy.
+   *
+   * @return A MethodSecurityExpressionHandler using the role hierarchy.
+   */
+  @Bean
+  public static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+    DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+    handler.setRoleHierarchy(RoleMask.HIERARCHY);
+    return handler;
+  }
+
+  /**
+   * Bean to authorize methods annotated with @RequiresRole using precomputed role bitsets instead of SpEL.
+   * It is declared as an Advisor, because the auto-proxy creator only looks up advisor beans by their declared type.
+   *
+   * @return An advisor applying the RoleAuthorizationManager.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor requiresRoleAuthorization() {
+    ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forMethodAnnotation(RequiresRole.class))
+            .union(new AnnotationMatchingPointcut(RequiresRole.class, true));
+    return new AuthorizationManagerBeforeMethodInterceptor(pointcut, new RoleAuthorizationManager());
   }
 
   /**
@@ -91,13 +210,13 @@ public class WebSecurityConfig {
   }
 
   /**
-   * Bean to create a PasswordEncoder instance using BCrypt.
+   * Bean to create a PasswordEncoder instance using BCrypt, recording a span for every hash and comparison.
    *
-   * @return A BCryptPasswordEncoder instance.
+   * @return A BCryptPasswordEncoder instance wrapped in a TracingPasswordEncoder.
    */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new TracingPasswordEncoder(new BCryptPasswordEncoder(), tracing);
   }
 
   /**
@@ -114,15 +233,18 @@ public class WebSecurityConfig {
     // Disable CSRF protection
     http.csrf(AbstractHttpConfigurer::disable)
 
-            // Set the authentication entry point for unauthorized access
-            .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
+            // Set the authentication entry point for unauthorized access and the handler for forbidden access
+            .exceptionHandling(exception -> exception
+                    .authenticationEntryPoint(unauthorizedHandler)
+                    .accessDeniedHandler(accessDeniedHandler))
 
             // Set the session creation policy to STATELESS
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
             // Configure authorization for HTTP requests
             .authorizeHttpRequests(auth ->
-                    auth.requestMatchers(allowedEndpoints).permitAll() // Allow specified endpoints without authentication
+                    auth.requestMatchers(PUBLIC_ENDPOINTS, METHOD_SECURED_ENDPOINTS).permitAll() // Allow specified endpoints without authentication
+                            .requestMatchers(ACTUATOR_ENDPOINTS).hasAuthority(ERole.ROLE_ADMIN.name()) // Restrict the other actuator endpoints to admins
                             .anyRequest().authenticated() // Authenticate all other requests
             );
 
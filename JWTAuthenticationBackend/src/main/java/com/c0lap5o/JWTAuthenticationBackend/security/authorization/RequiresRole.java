@@ -0,0 +1,27 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.authorization;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a method (or every method of a class) to principals that reach at least one of the given roles
+ * through the role hierarchy.
+ * This is checked by the RoleAuthorizationManager with a single bit test instead of a SpEL expression.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RequiresRole {
+
+  /**
+   * The roles that grant access; reaching any one of them is enough.
+   *
+   * @return The accepted roles.
+   */
+  ERole[] value();
+}
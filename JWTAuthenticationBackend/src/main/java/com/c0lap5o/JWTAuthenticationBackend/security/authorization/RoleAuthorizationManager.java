@@ -0,0 +1,78 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.authorization;
+
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * AuthorizationManager for methods annotated with RequiresRole.
+ * The required role bitset of each method is resolved once and cached, and the reachable roles of the principal
+ * are precomputed in UserDetailsImpl, so each access check is a single bit test.
+ */
+public class RoleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+  /**
+   * Cache of the required role bitset for each secured method.
+   */
+  private final Map<Method, Integer> requiredRoles = new ConcurrentHashMap<>();
+
+  /**
+   * Checks whether the current principal reaches any of the roles required by the invoked method.
+   *
+   * @param authentication Supplier of the current authentication.
+   * @param invocation The method invocation being authorized.
+   * @return An AuthorizationDecision granting or denying access.
+   */
+  @Override
+  public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+    int required = requiredRoles.computeIfAbsent(invocation.getMethod(), method -> resolveRequiredRoles(invocation));
+    Authentication auth = authentication.get();
+    boolean granted = auth != null && auth.isAuthenticated() && (reachableRoles(auth) & required) != 0;
+    return new AuthorizationDecision(granted);
+  }
+
+  /**
+   * Returns the reachable role bitset of the given authentication.
+   *
+   * @param authentication The authentication to inspect.
+   * @return The reachable role bitset.
+   */
+  private static int reachableRoles(Authentication authentication) {
+    // Use the bitset cached on our own principal, and only resolve the hierarchy for foreign principals
+    if (authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+      return userDetails.getReachableRoles();
+    }
+    return RoleMask.reachable(authentication.getAuthorities());
+  }
+
+  /**
+   * Resolves the required role bitset from the RequiresRole annotation on the method or its class.
+   *
+   * @param invocation The method invocation being authorized.
+   * @return The required role bitset.
+   */
+  private static int resolveRequiredRoles(MethodInvocation invocation) {
+    Class<?> targetClass = invocation.getThis() != null
+            ? AopUtils.getTargetClass(invocation.getThis())
+            : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+    RequiresRole annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresRole.class);
+    if (annotation == null) {
+      annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequiresRole.class);
+    }
+    if (annotation == null) {
+      throw new IllegalStateException("No @RequiresRole found on " + method);
+    }
+    return RoleMask.of(annotation.value());
+  }
+}
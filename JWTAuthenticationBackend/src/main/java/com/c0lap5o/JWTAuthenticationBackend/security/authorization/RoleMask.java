@@ -0,0 +1,194 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.authorization;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for representing sets of roles as ERole bitsets.
+ * The role hierarchy (ADMIN > MODERATOR > USER, and ADMIN > GATEWAY) is resolved once per role when the class is loaded,
+ * so computing the reachable roles of a principal is a handful of array lookups.
+ * It also holds the canonical authority objects of the roles, shared by all principals instead of being
+ * allocated per user.
+ */
+public final class RoleMask {
+
+  /**
+   * The role hierarchy of the application.
+   */
+  public static final RoleHierarchy HIERARCHY = createHierarchy();
+
+  /**
+   * All roles, indexed by ordinal; ERole.values() would clone the array on every call.
+   */
+  private static final ERole[] ROLES = ERole.values();
+
+  /**
+   * The canonical authority of each role, indexed by ordinal.
+   */
+  private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLES.length];
+
+  /**
+   * The canonical, immutable authority list of each role bitset, indexed by bitset.
+   */
+  private static final List<GrantedAuthority>[] AUTHORITY_LISTS = createAuthorityLists();
+
+  /**
+   * Lookup of roles by authority name, used instead of ERole.valueOf to tolerate unknown authorities.
+   */
+  private static final Map<String, ERole> ROLES_BY_AUTHORITY = new HashMap<>();
+
+  /**
+   * The reachable role bitset of each role, indexed by ordinal.
+   */
+  private static final int[] REACHABLE = new int[ROLES.length];
+
+  static {
+    for (ERole role : ROLES) {
+      ROLES_BY_AUTHORITY.put(role.name(), role);
+    }
+
+    // Resolve the hierarchy once for every role
+    for (ERole role : ROLES) {
+      REACHABLE[role.ordinal()] = of(HIERARCHY.getReachableGrantedAuthorities(
+              List.of(new SimpleGrantedAuthority(role.name()))));
+    }
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private RoleMask() {
+  }
+
+  /**
+   * Returns the bitset of the roles directly contained in the given authorities.
+   *
+   * @param authorities The authorities to convert.
+   * @return The role bitset; authorities that are not roles are ignored.
+   */
+  public static int of(Collection<? extends GrantedAuthority> authorities) {
+    int mask = 0;
+    for (GrantedAuthority authority : authorities) {
+      ERole role = ROLES_BY_AUTHORITY.get(authority.getAuthority());
+      if (role != null) {
+        mask |= role.mask();
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the bitset of the roles named in the given values, such as the roles claim of a token.
+   *
+   * @param names The role names to convert.
+   * @return The role bitset; names that are not roles are ignored.
+   */
+  public static int ofNames(Collection<?> names) {
+    int mask = 0;
+    for (Object name : names) {
+      ERole role = ROLES_BY_AUTHORITY.get(String.valueOf(name));
+      if (role != null) {
+        mask |= role.mask();
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the bitset of the given roles.
+   *
+   * @param roles The roles to convert.
+   * @return The role bitset.
+   */
+  public static int of(ERole... roles) {
+    int mask = 0;
+    for (ERole role : roles) {
+      mask |= role.mask();
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the bitset of all roles reachable from the given authorities through the role hierarchy.
+   *
+   * @param authorities The authorities granted to a principal.
+   * @return The reachable role bitset.
+   */
+  public static int reachable(Collection<? extends GrantedAuthority> authorities) {
+    int granted = of(authorities);
+    int mask = 0;
+    for (ERole role : ROLES) {
+      if ((granted & role.mask()) != 0) {
+        mask |= REACHABLE[role.ordinal()];
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the canonical authority of a role.
+   *
+   * @param role The role.
+   * @return The shared authority object of the role.
+   */
+  public static GrantedAuthority authority(ERole role) {
+    return AUTHORITIES[role.ordinal()];
+  }
+
+  /**
+   * Returns the canonical authority list of a role bitset.
+   *
+   * @param mask The role bitset.
+   * @return The shared, immutable list of the authorities of the roles in the bitset, in role order.
+   */
+  public static List<GrantedAuthority> authorities(int mask) {
+    return AUTHORITY_LISTS[mask];
+  }
+
+  /**
+   * Builds the canonical authorities, and the authority list of every possible role bitset.
+   *
+   * @return The authority lists, indexed by bitset.
+   */
+  @SuppressWarnings("unchecked")
+  private static List<GrantedAuthority>[] createAuthorityLists() {
+    for (ERole role : ROLES) {
+      AUTHORITIES[role.ordinal()] = new SimpleGrantedAuthority(role.name());
+    }
+
+    List<GrantedAuthority>[] lists = new List[1 << ROLES.length];
+    for (int mask = 0; mask < lists.length; mask++) {
+      List<GrantedAuthority> list = new ArrayList<>();
+      for (ERole role : ROLES) {
+        if ((mask & role.mask()) != 0) {
+          list.add(AUTHORITIES[role.ordinal()]);
+        }
+      }
+      lists[mask] = List.copyOf(list);
+    }
+    return lists;
+  }
+
+  /**
+   * Builds the role hierarchy ADMIN > MODERATOR > USER; ADMIN also reaches GATEWAY, the role of the services
+   * allowed to introspect tokens.
+   *
+   * @return The role hierarchy.
+   */
+  private static RoleHierarchy createHierarchy() {
+    RoleHierarchyImpl hierarchy = new RoleHierarchyImpl();
+    hierarchy.setHierarchy(ERole.ROLE_ADMIN.name() + " > " + ERole.ROLE_MODERATOR.name() + "\n"
+            + ERole.ROLE_MODERATOR.name() + " > " + ERole.ROLE_USER.name() + "\n"
+            + ERole.ROLE_ADMIN.name() + " > " + ERole.ROLE_GATEWAY.name());
+    return hierarchy;
+  }
+}
@@ -0,0 +1,46 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Implementation of the AccessDeniedHandler interface to handle forbidden access attempts.
+ * This class is responsible for returning a JSON response when an authenticated user lacks the required authority.
+ */
+@Slf4j
+@Component
+public class AccessDeniedHandlerJwt implements AccessDeniedHandler {
+
+  /**
+   * Precomputed JSON body for 403 responses.
+   */
+  private static final JsonErrorResponseTemplate FORBIDDEN =
+          new JsonErrorResponseTemplate(HttpServletResponse.SC_FORBIDDEN, "Forbidden");
+
+  /**
+   * Method to handle an access denied exception.
+   * This method sets the HTTP response status to 403 (Forbidden) and returns a JSON error message.
+   *
+   * @param request The HttpServletRequest object.
+   * @param response The HttpServletResponse object.
+   * @param accessDeniedException The AccessDeniedException that triggered this method.
+   * @throws IOException If an I/O error occurs.
+   * @throws ServletException If a servlet-related error occurs.
+   */
+  @Override
+  public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException accessDeniedException)
+          throws IOException, ServletException {
+    // Log the access denied exception
+    log.warn("Access denied: {}", accessDeniedException.getMessage());
+
+    // Write the error body with only the message and path spliced into the template
+    FORBIDDEN.write(response, accessDeniedException.getMessage(), request.getServletPath());
+  }
+}
@@ -1,6 +1,10 @@
 package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
 
-import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,10 +12,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,10 +24,17 @@ import java.io.IOException;
 /**
  * Filter class to handle JWT token authentication for each incoming request.
  * This filter extends OncePerRequestFilter to ensure it runs once per request.
+ * When a valid token is close to expiring and its user was loaded from the database, it also returns a fresh one
+ * in the X-Renewed-Token response header.
  */
 @Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+  /**
+   * The response header carrying a fresh token when the request's token is about to expire.
+   */
+  public static final String RENEWED_TOKEN_HEADER = "X-Renewed-Token";
+
   /**
    * Utility class for handling JWT tokens.
    */
@@ -31,10 +42,41 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   private JwtUtils jwtUtils;
 
   /**
-   * Service class for loading user details.
+   * Resolver of the principal named by a token, shielding requests from a slow or failing database.
+   */
+  @Autowired
+  private PrincipalResolver principalResolver;
+
+  /**
+   * Tracer recording a span for the authentication of each request.
    */
   @Autowired
-  private UserDetailsServiceImpl userDetailsService;
+  private AuthTracing tracing = AuthTracing.NOOP;
+
+  /**
+   * Matcher for public endpoints on which JWT processing is skipped entirely.
+   */
+  private final RequestMatcher publicEndpoints;
+
+  /**
+   * Constructor to initialize the filter with the public endpoints it should not process.
+   *
+   * @param publicEndpoints The precompiled matcher for public endpoints, shared with the security configuration.
+   */
+  public AuthTokenFilter(RequestMatcher publicEndpoints) {
+    this.publicEndpoints = publicEndpoints;
+  }
+
+  /**
+   * Skips the filter for public endpoints, so a stale bearer header on e.g. sign-in is never verified.
+   *
+   * @param request The HttpServletRequest object.
+   * @return True if the request targets a public endpoint, false otherwise.
+   */
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return publicEndpoints.matches(request);
+  }
 
   /**
    * Method to perform the actual filtering of the request.
@@ -49,40 +91,64 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Override
   protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
           throws ServletException, IOException {
-    try {
+    // Trace the authentication only, not the rest of the filter chain
+    Span span = tracing.startSpan("AuthTokenFilter");
+    try (Scope ignored = span.makeCurrent()) {
       // Extract the JWT token from the Authorization header
       String jwt = parseJwt(request);
 
-      // Check if the JWT token is present and valid
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        // Extract the username from the JWT token
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        // Load the user details based on the username
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      // Verify the JWT token once, keeping its claims
+      Claims claims = jwt == null ? null : jwtUtils.parseClaims(jwt);
+      if (jwt == null) {
+        span.setAttribute(AuthTracing.OUTCOME, "anonymous");
+      } else if (claims == null) {
+        AuthTracing.reject(span, "invalid_token");
+      } else {
+        // Load the user details based on the username from the token, or fall back on the cache or the claims
+        PrincipalResolver.Resolved resolved = principalResolver.resolve(claims);
+        UserDetails userDetails = resolved.principal();
 
-        // Create an authentication token with the user details and authorities
-        UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+        // Set the authentication context; the request details are only built if something reads them
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(userDetails, claims, request.getRemoteAddr()));
+        span.setAttribute(AuthTracing.OUTCOME, "authenticated");
 
-        // Set the authentication details from the request
-        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-        // Set the authentication context
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        // Hand out a fresh token if this one is about to expire, before the response is committed; a principal from
+        // the fallback may carry stale roles or a deleted user, so it never extends the session
+        String renewedJwt = resolved.fromDatabase() ? jwtUtils.renewJwtToken(claims, userDetails) : null;
+        if (renewedJwt != null) {
+          response.setHeader(RENEWED_TOKEN_HEADER, renewedJwt);
+        }
       }
     } catch (Exception e) {
       // Log any exceptions that occur during the authentication process
       log.error("Cannot set user authentication: {}", e);
+      recordRejection(span, e);
+    } finally {
+      span.end();
     }
 
     // Continue the request processing with the next filter in the chain
     filterChain.doFilter(request, response);
   }
 
+  /**
+   * Records why authentication failed with an exception.
+   *
+   * @param span The span of the request authentication.
+   * @param e The exception that occurred.
+   */
+  private static void recordRejection(Span span, Exception e) {
+    if (e instanceof UsernameNotFoundException) {
+      AuthTracing.reject(span, "user_not_found");
+    } else if (e instanceof JwtException) {
+      AuthTracing.reject(span, "invalid_token");
+    } else {
+      AuthTracing.reject(span, "error");
+      AuthTracing.error(span, e);
+    }
+  }
+
   /**
    * Method to parse the JWT token from the Authorization header of the request.
    *
@@ -0,0 +1,125 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Precomputed JSON body for security error responses.
+ * The constant parts of the body (status and error) are encoded once, and only the message and path are
+ * escaped and spliced in for each response, so no ObjectMapper or intermediate map is needed per request.
+ */
+public final class JsonErrorResponseTemplate {
+
+  /**
+   * Bytes written between the message and the path.
+   */
+  private static final byte[] PATH_FIELD = ",\"path\":".getBytes(StandardCharsets.UTF_8);
+
+  /**
+   * Bytes closing the JSON object.
+   */
+  private static final byte[] END_OBJECT = "}".getBytes(StandardCharsets.UTF_8);
+
+  /**
+   * Bytes written for a null value.
+   */
+  private static final byte[] NULL_VALUE = "null".getBytes(StandardCharsets.UTF_8);
+
+  /**
+   * A single double quote, used to wrap escaped string values.
+   */
+  private static final byte QUOTE = '"';
+
+  /**
+   * The HTTP status written with this template.
+   */
+  private final int status;
+
+  /**
+   * The constant start of the body, up to and including the message field name.
+   */
+  private final byte[] prefix;
+
+  /**
+   * Constructor to precompute the constant part of the error body.
+   *
+   * @param status The HTTP status code of the response.
+   * @param error The short error description (e.g., "Unauthorized").
+   */
+  public JsonErrorResponseTemplate(int status, String error) {
+    this.status = status;
+    this.prefix = ("{\"status\":" + status
+            + ",\"error\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(error)) + "\""
+            + ",\"message\":").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the error body to the response, setting the status, content type and content length.
+   *
+   * @param response The HttpServletResponse to write to.
+   * @param message The error message, may be null.
+   * @param path The request path, may be null.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void write(HttpServletResponse response, String message, String path) throws IOException {
+    // Escape the variable parts of the body
+    byte[] escapedMessage = escape(message);
+    byte[] escapedPath = escape(path);
+
+    response.setStatus(status);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(prefix.length + valueLength(escapedMessage)
+            + PATH_FIELD.length + valueLength(escapedPath) + END_OBJECT.length);
+
+    // Splice the escaped values into the precomputed template
+    ServletOutputStream out = response.getOutputStream();
+    out.write(prefix);
+    writeValue(out, escapedMessage);
+    out.write(PATH_FIELD);
+    writeValue(out, escapedPath);
+    out.write(END_OBJECT);
+    out.flush();
+  }
+
+  /**
+   * Escapes a string value as UTF-8 JSON string content.
+   *
+   * @param value The value to escape.
+   * @return The escaped bytes, or null if the value is null.
+   */
+  private static byte[] escape(String value) {
+    return value == null ? null : JsonStringEncoder.getInstance().quoteAsUTF8(value);
+  }
+
+  /**
+   * Returns the number of bytes written for an escaped value, including quotes.
+   *
+   * @param escaped The escaped value, or null.
+   * @return The number of bytes the value occupies in the body.
+   */
+  private static int valueLength(byte[] escaped) {
+    return escaped == null ? NULL_VALUE.length : escaped.length + 2;
+  }
+
+  /**
+   * Writes an escaped value as a JSON string, or a JSON null.
+   *
+   * @param out The output stream to write to.
+   * @param escaped The escaped value, or null.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static void writeValue(ServletOutputStream out, byte[] escaped) throws IOException {
+    if (escaped == null) {
+      out.write(NULL_VALUE);
+      return;
+    }
+    out.write(QUOTE);
+    out.write(escaped);
+    out.write(QUOTE);
+  }
+}
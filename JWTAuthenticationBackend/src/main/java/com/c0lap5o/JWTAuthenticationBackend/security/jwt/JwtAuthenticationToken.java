@@ -0,0 +1,154 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.Collection;
+
+/**
+ * Immutable authentication of a request carrying a verified JWT.
+ * Unlike UsernamePasswordAuthenticationToken it does not copy the authorities, which are the principal's shared
+ * authority list, and it builds the request details only when something asks for them.
+ */
+public final class JwtAuthenticationToken implements Authentication {
+
+  /**
+   * Serial version UID for serialization purposes.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The authenticated user.
+   */
+  private final UserDetails principal;
+
+  /**
+   * The verified claims of the token. They are not serialized, since the token itself is never stored.
+   */
+  private final transient Claims claims;
+
+  /**
+   * The address of the client that sent the request.
+   */
+  private final String remoteAddress;
+
+  /**
+   * The request details, built on first access.
+   */
+  private WebAuthenticationDetails details;
+
+  /**
+   * Constructor to initialize the authentication of a request.
+   *
+   * @param principal The authenticated user.
+   * @param claims The verified claims of the token.
+   * @param remoteAddress The address of the client that sent the request.
+   */
+  public JwtAuthenticationToken(UserDetails principal, Claims claims, String remoteAddress) {
+    this.principal = principal;
+    this.claims = claims;
+    this.remoteAddress = remoteAddress;
+  }
+
+  /**
+   * Returns the verified claims of the token.
+   *
+   * @return The claims.
+   */
+  public Claims getClaims() {
+    return claims;
+  }
+
+  /**
+   * Returns the authorities of the principal.
+   *
+   * @return The principal's authorities.
+   */
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return principal.getAuthorities();
+  }
+
+  /**
+   * Returns the credentials, which are never kept for token authentication.
+   *
+   * @return Always null.
+   */
+  @Override
+  public Object getCredentials() {
+    return null;
+  }
+
+  /**
+   * Returns the request details, building them on first access.
+   * There is no session in this stateless application, so the session ID is always null.
+   *
+   * @return The WebAuthenticationDetails of the request.
+   */
+  @Override
+  public Object getDetails() {
+    // A race only builds equal details twice, so no synchronization is needed
+    WebAuthenticationDetails result = details;
+    if (result == null) {
+      result = new WebAuthenticationDetails(remoteAddress, null);
+      details = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the authenticated user.
+   *
+   * @return The principal.
+   */
+  @Override
+  public Object getPrincipal() {
+    return principal;
+  }
+
+  /**
+   * Returns whether the request is authenticated, which is always the case once the token is verified.
+   *
+   * @return Always true.
+   */
+  @Override
+  public boolean isAuthenticated() {
+    return true;
+  }
+
+  /**
+   * Rejects any change of the authenticated state, since the token is immutable.
+   *
+   * @param isAuthenticated The requested state.
+   * @throws IllegalArgumentException If the state would change.
+   */
+  @Override
+  public void setAuthenticated(boolean isAuthenticated) throws IllegalArgumentException {
+    if (!isAuthenticated) {
+      throw new IllegalArgumentException("A JwtAuthenticationToken is immutable and always authenticated");
+    }
+  }
+
+  /**
+   * Returns the username of the principal.
+   *
+   * @return The username.
+   */
+  @Override
+  public String getName() {
+    return principal.getUsername();
+  }
+
+  /**
+   * Returns a description of the token, without the claims.
+   *
+   * @return A string describing the token.
+   */
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + " [Principal=" + getName() + ", Authorities=" + getAuthorities() + "]";
+  }
+}
@@ -0,0 +1,61 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the JWT key ring, bound from the app.jwt.* properties.
+ * The legacy app.jwtSecret is always part of the ring, under the key ID "default".
+ */
+@Data
+@ConfigurationProperties(prefix = "app.jwt")
+public class JwtKeyProperties {
+
+  /**
+   * The ID of the key new tokens are signed with. When unset, the newest active keystore key is used,
+   * and without a keystore the "default" key.
+   */
+  private String signingKeyId;
+
+  /**
+   * Additional HMAC keys by key ID, as base64-encoded secrets of at least 256 bits.
+   */
+  private Map<String, String> keys = new LinkedHashMap<>();
+
+  /**
+   * The local keystore holding further keys.
+   */
+  private Keystore keystore = new Keystore();
+
+  /**
+   * Configuration of the local PKCS12 keystore of HMAC secret keys or RSA and EC key pairs, whose aliases are the
+   * key IDs.
+   */
+  @Data
+  public static class Keystore {
+
+    /**
+     * The path of the keystore file, or null for none.
+     */
+    private String path;
+
+    /**
+     * The password of the keystore and its keys.
+     */
+    private String password = "";
+
+    /**
+     * How often the keystore is reloaded, in milliseconds.
+     */
+    private long reloadIntervalMs = 60000;
+
+    /**
+     * How long a new keystore key is only used to verify before it may sign, in milliseconds.
+     * It gives every instance time to load the key before the first token signed with it reaches them.
+     */
+    private long activationDelayMs = 180000;
+  }
+}
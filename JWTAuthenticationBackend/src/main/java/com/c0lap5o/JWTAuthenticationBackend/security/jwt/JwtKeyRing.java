@@ -0,0 +1,161 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import com.c0lap5o.jwtverifier.KeyRing;
+import com.c0lap5o.jwtverifier.TokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Ring of the HMAC keys or RSA and EC key pairs tokens are signed and verified with, indexed by key ID ("kid").
+ * One key signs new tokens and its ID goes into their header; every key in the ring verifies, so tokens signed
+ * with a previous key stay valid while it is rotated out. Tokens without a key ID were issued before the ring
+ * existed and are verified with the "default" key, the legacy app.jwtSecret.
+ * The keys are held in an immutable {@link KeyRing} of the jwt-verifier library that is swapped on reload, so
+ * resolving the key of a token is a single map lookup without locking; this class only builds it from the
+ * application's configuration and reloads it, every app.jwt.keystore.reload-interval-ms.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing implements SchedulingConfigurer {
+
+  /**
+   * The key ID of the legacy app.jwtSecret, also used for tokens without a key ID.
+   */
+  public static final String DEFAULT_KEY_ID = KeyRing.DEFAULT_KEY_ID;
+
+  /**
+   * The configuration of the ring.
+   */
+  private final JwtKeyProperties properties;
+
+  /**
+   * The legacy secret, may be empty.
+   */
+  private final String legacySecret;
+
+  /**
+   * The verifier checking tokens against the current keys.
+   */
+  private final TokenVerifier verifier;
+
+  /**
+   * Constructor to load the key ring; it fails if no usable signing key is configured.
+   *
+   * @param properties The configuration of the ring.
+   * @param legacySecret The legacy base64-encoded secret, used as the "default" key.
+   */
+  @Autowired
+  public JwtKeyRing(JwtKeyProperties properties, @Value("${app.jwtSecret:}") String legacySecret) {
+    this.properties = properties;
+    this.legacySecret = legacySecret;
+    KeyRing keys = load();
+    this.verifier = new TokenVerifier(keys);
+    log.info("Loaded JWT key ring with keys {}, signing with '{}'", keys.keyIds(), keys.signingKey().id());
+  }
+
+  /**
+   * Constructor for a ring holding only the given secret, as the "default" key.
+   *
+   * @param secret The base64-encoded secret.
+   */
+  public JwtKeyRing(String secret) {
+    this(new JwtKeyProperties(), secret);
+  }
+
+  /**
+   * Returns the key new tokens are signed with, together with its ID.
+   *
+   * @return The signing key.
+   */
+  public KeyRing.SigningKey signingKey() {
+    return verifier.getKeyRing().signingKey();
+  }
+
+  /**
+   * Returns the verifier checking tokens against the current keys.
+   *
+   * @return The token verifier.
+   */
+  public TokenVerifier getVerifier() {
+    return verifier;
+  }
+
+  /**
+   * Schedules the reload with the interval bound to the keystore properties, so it follows the same relaxed binding
+   * as the rest of the ring's configuration.
+   *
+   * @param registrar The registrar of the scheduled tasks.
+   */
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar registrar) {
+    Duration interval = Duration.ofMillis(properties.getKeystore().getReloadIntervalMs());
+    registrar.addFixedDelayTask(new FixedDelayTask(this::reload, interval, interval));
+  }
+
+  /**
+   * Reloads the ring, picking up keys added to or removed from the keystore and activating new signing keys.
+   * A failed reload is logged and keeps the current keys.
+   */
+  public void reload() {
+    if (!StringUtils.hasText(properties.getKeystore().getPath())) {
+      return;
+    }
+
+    KeyRing next;
+    try {
+      next = load();
+    } catch (Exception e) {
+      log.error("Failed to reload the JWT key ring, keeping the current keys: {}", e.getMessage());
+      return;
+    }
+
+    KeyRing previous = verifier.getKeyRing();
+    verifier.setKeyRing(next);
+    if (!previous.keyIds().equals(next.keyIds()) || !previous.signingKey().id().equals(next.signingKey().id())) {
+      log.info("Reloaded JWT key ring with keys {}, signing with '{}'", next.keyIds(), next.signingKey().id());
+    }
+  }
+
+  /**
+   * Builds a key ring from the legacy secret, the configured keys and the keystore, in this order,
+   * so a later source replaces a key ID of an earlier one.
+   *
+   * @return The new key ring.
+   * @throws IllegalStateException If no signing key can be determined.
+   */
+  private KeyRing load() {
+    KeyRing.Builder builder = KeyRing.builder();
+    if (StringUtils.hasText(legacySecret)) {
+      builder.base64Key(DEFAULT_KEY_ID, legacySecret);
+    }
+    properties.getKeys().forEach(builder::base64Key);
+
+    JwtKeyProperties.Keystore keystore = properties.getKeystore();
+    if (StringUtils.hasText(keystore.getPath())) {
+      try {
+        builder.keystore(Path.of(keystore.getPath()), keystore.getPassword().toCharArray(),
+                keystore.getActivationDelayMs());
+      } catch (Exception e) {
+        throw new IllegalStateException("Cannot load JWT keystore " + keystore.getPath() + ": " + e.getMessage(), e);
+      }
+    }
+
+    // An explicit signing key wins over the newest active keystore key, which wins over the legacy secret
+    String signingKeyId = StringUtils.hasText(properties.getSigningKeyId()) ? properties.getSigningKeyId() : null;
+    KeyRing keys = builder.signingKeyId(signingKeyId).build();
+    if (!keys.canSign()) {
+      throw new IllegalStateException("No JWT signing key with ID '"
+              + (signingKeyId == null ? DEFAULT_KEY_ID : signingKeyId) + "' is configured");
+    }
+    return keys;
+  }
+}
@@ -1,16 +1,28 @@
 package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
 
 import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import com.c0lap5o.jwtverifier.KeyRing;
+import com.c0lap5o.jwtverifier.TokenVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Utility class for handling JWT tokens, including generation, validation, and extraction of user details.
@@ -20,10 +32,19 @@ import java.util.Date;
 public class JwtUtils {
 
   /**
-   * The secret key used for signing and verifying JWT tokens.
+   * The name of the claim holding the user's roles.
    */
-  @Value("${app.jwtSecret}")
-  private String jwtSecret;
+  public static final String ROLES_CLAIM = TokenVerifier.ROLES_CLAIM;
+
+  /**
+   * The name of the claim holding when the user signed in, in seconds since the epoch; renewed tokens keep it.
+   */
+  public static final String SESSION_START_CLAIM = "auth_time";
+
+  /**
+   * The name of the claim holding the user's ID, so a principal built from the claims still has it.
+   */
+  public static final String USER_ID_CLAIM = "uid";
 
   /**
    * The expiration time in milliseconds for JWT tokens.
@@ -31,6 +52,60 @@ public class JwtUtils {
   @Value("${app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  /**
+   * How long before its expiration a token is renewed, in milliseconds; 0 disables renewal.
+   */
+  @Value("${app.jwtRenewalWindowMs:120000}")
+  private long jwtRenewalWindowMs;
+
+  /**
+   * How long after sign-in renewed tokens may last at most, in milliseconds.
+   */
+  @Value("${app.jwtMaxSessionAgeMs:43200000}")
+  private long jwtMaxSessionAgeMs;
+
+  /**
+   * The maximum number of renewed token IDs remembered.
+   */
+  @Value("${app.jwtRenewedIdsSize:100000}")
+  private long jwtRenewedIdsSize = 100000;
+
+  /**
+   * Tracer recording a span for every token generated or verified.
+   */
+  @Autowired
+  private AuthTracing tracing = AuthTracing.NOOP;
+
+  /**
+   * The keys tokens are signed and verified with.
+   */
+  @Autowired
+  private JwtKeyRing keyRing;
+
+  /**
+   * The shared, thread-safe verifier of the key ring, the same one resource servers use through jwt-verifier.
+   */
+  private TokenVerifier verifier;
+
+  /**
+   * The IDs of the tokens that were already renewed, remembered until those tokens expire.
+   */
+  private Cache<String, Boolean> renewedTokenIds;
+
+  /**
+   * Looks up the verifier once, so it is not resolved for every token.
+   * It resolves the verification key of each token from its key ID through the key ring, so keys can be rotated
+   * without rebuilding it.
+   */
+  @PostConstruct
+  public void init() {
+    verifier = keyRing.getVerifier();
+    renewedTokenIds = Caffeine.newBuilder()
+            .maximumSize(jwtRenewedIdsSize)
+            .expireAfterWrite(Duration.ofMillis(Math.max(1, jwtExpirationMs)))
+            .build();
+  }
+
   /**
    * Generates a JWT token for the given authentication object.
    *
@@ -41,23 +116,107 @@ public class JwtUtils {
     // Extract the user principal from the authentication object
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
-    // Build and return the JWT token
-    return Jwts.builder()
-            .subject(userPrincipal.getUsername()) // Set the subject (username)
-            .issuedAt(new Date()) // Set the issue time
-            .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs)) // Set the expiration time
-            .signWith(key()) // Sign the token with the secret key
-            .compact(); // Compact the token
+    // The session starts now and is carried over by every renewal
+    long now = System.currentTimeMillis();
+    return buildToken(userPrincipal.getId(), userPrincipal.getUsername(), userPrincipal.getAuthorities(), now / 1000,
+            now + jwtExpirationMs);
+  }
+
+  /**
+   * Issues a fresh token for a verified token that expires within the renewal window, so active users never have to
+   * sign in again while their session lasts. The fresh token carries the user's current roles and the session start
+   * of the old one, and it never outlives the maximum session age. Each token is renewed at most once per instance:
+   * the renewed token IDs are kept in memory, so behind a load balancer a token may be renewed once on each instance,
+   * each renewal still capped by the same session start.
+   *
+   * @param claims The verified claims of the token.
+   * @param userDetails The user the token was issued to.
+   * @return The fresh token, or null if the token is not due, was already renewed, or its session cannot be extended.
+   */
+  public String renewJwtToken(Claims claims, UserDetails userDetails) {
+    // Only renew within the window before expiration
+    long now = System.currentTimeMillis();
+    Date expiration = claims.getExpiration();
+    if (expiration == null || expiration.getTime() - now > jwtRenewalWindowMs) {
+      return null;
+    }
+
+    // Tokens without an ID or session start cannot be tracked, and renewing one at the session cap gains nothing
+    Long sessionStart = sessionStart(claims);
+    if (claims.getId() == null || sessionStart == null) {
+      return null;
+    }
+    long renewedExpiration = Math.min(now + jwtExpirationMs, sessionStart * 1000 + jwtMaxSessionAgeMs);
+    if (renewedExpiration <= expiration.getTime()) {
+      return null;
+    }
+
+    // Renew each token only once, even if its requests race
+    if (renewedTokenIds.asMap().putIfAbsent(claims.getId(), Boolean.TRUE) != null) {
+      return null;
+    }
+    Long userId = userDetails instanceof UserDetailsImpl principal ? principal.getId() : userId(claims);
+    return buildToken(userId, userDetails.getUsername(), userDetails.getAuthorities(), sessionStart, renewedExpiration);
+  }
+
+  /**
+   * Returns the ID of the user a token was issued to.
+   *
+   * @param claims The verified claims of the token.
+   * @return The user ID, or null for tokens issued before the claim existed.
+   */
+  public static Long userId(Claims claims) {
+    return claims.get(USER_ID_CLAIM) instanceof Number userId ? userId.longValue() : null;
+  }
+
+  /**
+   * Returns when the session of a token started, falling back on its issue time for tokens without the claim.
+   *
+   * @param claims The verified claims of the token.
+   * @return The session start in seconds since the epoch, or null if unknown.
+   */
+  private static Long sessionStart(Claims claims) {
+    if (claims.get(SESSION_START_CLAIM) instanceof Number sessionStart) {
+      return sessionStart.longValue();
+    }
+    return claims.getIssuedAt() == null ? null : claims.getIssuedAt().getTime() / 1000;
   }
 
   /**
-   * Returns the secret key used for signing and verifying JWT tokens.
+   * Builds and signs a token with the current signing key.
    *
-   * @return The secret key.
+   * @param userId The ID of the user, may be null.
+   * @param username The username, the subject of the token.
+   * @param authorities The user's authorities, stored as roles.
+   * @param sessionStart When the user signed in, in seconds since the epoch.
+   * @param expirationMs When the token expires, in milliseconds since the epoch.
+   * @return The signed token.
    */
-  private SecretKey key() {
-    // Decode the secret key from base64 and return it as a HMAC SHA key
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+  private String buildToken(Long userId, String username, Collection<? extends GrantedAuthority> authorities,
+                            long sessionStart, long expirationMs) {
+    // Collect the user's roles, so token holders can be authorized without a user lookup
+    List<String> roles = authorities.stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+
+    // Build and return the JWT token
+    KeyRing.SigningKey signingKey = keyRing.signingKey();
+    Span span = tracing.startSpan("jwt.generate");
+    try (Scope ignored = span.makeCurrent()) {
+      return Jwts.builder()
+              .header().keyId(signingKey.id()).and() // Set the ID of the signing key
+              .id(UUID.randomUUID().toString()) // Set a unique ID, so the token can be renewed only once
+              .subject(username) // Set the subject (username)
+              .claim(USER_ID_CLAIM, userId) // Set the user ID, left out if unknown
+              .claim(ROLES_CLAIM, roles) // Set the roles
+              .claim(SESSION_START_CLAIM, sessionStart) // Set when the user signed in
+              .issuedAt(new Date()) // Set the issue time
+              .expiration(new Date(expirationMs)) // Set the expiration time
+              .signWith(signingKey.key()) // Sign the token with the current signing key
+              .compact(); // Compact the token
+    } finally {
+      span.end();
+    }
   }
 
   /**
@@ -68,12 +227,7 @@ public class JwtUtils {
    */
   public String getUserNameFromJwtToken(String token) {
     // Verify the token and extract the subject (username)
-    return Jwts.parser()
-            .verifyWith(key())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload()
-            .getSubject();
+    return verifier.verify(token).getSubject();
   }
 
   /**
@@ -83,24 +237,55 @@ public class JwtUtils {
    * @return True if the token is valid, false otherwise.
    */
   public boolean validateJwtToken(String authToken) {
-    try {
-      // Verify the token using the secret key
-      Jwts.parser().verifyWith(key()).build().parse(authToken);
-      return true; // Token is valid
+    return parseClaims(authToken) != null;
+  }
+
+  /**
+   * Verifies the given JWT token and returns its claims, so callers need to parse the token only once.
+   *
+   * @param authToken The JWT token to verify.
+   * @return The verified claims, or null if the token is invalid.
+   */
+  public Claims parseClaims(String authToken) {
+    Span span = tracing.startSpan("jwt.parse");
+    try (Scope ignored = span.makeCurrent()) {
+      // Verify the token using the key named in its header
+      return verifier.verify(authToken);
     } catch (MalformedJwtException e) {
       // Log error for malformed JWT token
       log.error("Invalid JWT token: {}", e.getMessage());
+      AuthTracing.reject(span, "malformed");
     } catch (ExpiredJwtException e) {
       // Log error for expired JWT token
       log.error("JWT token is expired: {}", e.getMessage());
+      AuthTracing.reject(span, "expired");
     } catch (UnsupportedJwtException e) {
       // Log error for unsupported JWT token
       log.error("JWT token is unsupported: {}", e.getMessage());
+      AuthTracing.reject(span, "unsupported");
     } catch (IllegalArgumentException e) {
       // Log error for empty JWT claims string
       log.error("JWT claims string is empty: {}", e.getMessage());
+      AuthTracing.reject(span, "empty");
+    } catch (JwtException e) {
+      // Record other rejections (e.g. an invalid signature) and leave them to the caller as before
+      AuthTracing.reject(span, "invalid");
+      throw e;
+    } finally {
+      span.end();
     }
 
-    return false; // Token is invalid
+    return null; // Token is invalid
+  }
+
+  /**
+   * Verifies the given JWT token and returns its claims, without logging rejected tokens.
+   * It is meant for high-volume callers such as batch introspection, where invalid tokens are an expected result.
+   *
+   * @param token The JWT token.
+   * @return The verified claims, or null if the token is invalid or expired.
+   */
+  public Claims parseClaimsQuietly(String token) {
+    return verifier.verifyOrNull(token);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import com.c0lap5o.jwtverifier.TokenVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.jsonwebtoken.Claims;
+import io.opentelemetry.api.trace.Span;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+
+/**
+ * Resolves the principal of a request carrying a verified JWT, without letting a slow or failing database stall
+ * every authenticated request.
+ * The user lookup runs behind a circuit breaker that opens on too many failed or slow lookups. While it is open,
+ * or when a lookup fails because the database is unreachable, overloaded or timed out, the principal comes from a
+ * last-known-good cache of recently loaded users, and else from the token's claims alone. Roles may then be as old
+ * as the cache entry or the token, which is why cached entries expire and are dropped whenever roles change.
+ * Any other failure is a bug or a bad row rather than an outage, so it neither opens the circuit nor falls back,
+ * and the request fails.
+ */
+@Slf4j
+@Component
+public class PrincipalResolver {
+
+  /**
+   * Service class for loading user details.
+   */
+  private final UserDetailsServiceImpl userDetailsService;
+
+  /**
+   * Circuit breaker around the user lookup.
+   */
+  private final CircuitBreaker circuitBreaker;
+
+  /**
+   * Recently loaded principals by username, without their password hashes.
+   */
+  private final Cache<String, UserDetailsImpl> lastKnownGood;
+
+  /**
+   * Constructor to inject dependencies and configure the circuit breaker and cache.
+   *
+   * @param userDetailsService Service class for loading user details.
+   * @param failureRateThreshold Percentage of failed, or of slow, lookups at which the circuit opens.
+   * @param slowCallThresholdMs Duration from which a lookup counts as slow, in milliseconds.
+   * @param slidingWindowSize Number of recent lookups the rates are computed over.
+   * @param waitInOpenStateMs How long the circuit stays open before probing the database again, in milliseconds.
+   * @param cacheSize Maximum number of last-known-good principals.
+   * @param cacheTtlMs How long a last-known-good principal may be used, in milliseconds.
+   */
+  public PrincipalResolver(UserDetailsServiceImpl userDetailsService,
+                           @Value("${app.userLookup.failureRateThreshold:50}") float failureRateThreshold,
+                           @Value("${app.userLookup.slowCallThresholdMs:500}") long slowCallThresholdMs,
+                           @Value("${app.userLookup.slidingWindowSize:20}") int slidingWindowSize,
+                           @Value("${app.userLookup.waitInOpenStateMs:10000}") long waitInOpenStateMs,
+                           @Value("${app.userLookup.cacheSize:10000}") long cacheSize,
+                           @Value("${app.userLookup.cacheTtlMs:600000}") long cacheTtlMs) {
+    this.userDetailsService = userDetailsService;
+    this.circuitBreaker = CircuitBreaker.of("userLookup", CircuitBreakerConfig.custom()
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(Math.max(1, slidingWindowSize / 2))
+            .waitDurationInOpenState(Duration.ofMillis(waitInOpenStateMs))
+            .recordException(PrincipalResolver::isUnavailable) // Only outages count; an unknown user is an answer
+            .build());
+    this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+            log.warn("User lookup circuit breaker: {}", event.getStateTransition()));
+    this.lastKnownGood = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .build();
+  }
+
+  /**
+   * Resolves the principal named by the verified claims.
+   *
+   * @param claims The verified claims of the token.
+   * @return The principal, from the database if possible, and whether it came from there.
+   * @throws UsernameNotFoundException If the database answers that the user does not exist.
+   */
+  public Resolved resolve(Claims claims) {
+    String username = claims.getSubject();
+    try {
+      UserDetails userDetails = circuitBreaker.executeSupplier(() -> userDetailsService.loadUserByUsername(username));
+      remember(username, userDetails);
+      Span.current().setAttribute(AuthTracing.PRINCIPAL_SOURCE, "database");
+      return new Resolved(userDetails, true);
+    } catch (UsernameNotFoundException e) {
+      // The user is gone, so it must not be authenticated from the cache later
+      lastKnownGood.invalidate(username);
+      throw e;
+    } catch (CallNotPermittedException e) {
+      // The circuit is open, do not wait on the database
+      return fallback(username, claims);
+    } catch (RuntimeException e) {
+      if (!isUnavailable(e)) {
+        throw e;
+      }
+      log.warn("User lookup failed, authenticating {} without the database: {}", username, e.getMessage());
+      return fallback(username, claims);
+    }
+  }
+
+  /**
+   * Tells whether a failed lookup means the database is unavailable for now, so the lookup may fall back.
+   * {@link TransientDataAccessException} includes query timeouts and pessimistic lock failures.
+   *
+   * @param e The failure.
+   * @return True for transient data-access failures, unreachable databases and failures to begin a transaction.
+   */
+  private static boolean isUnavailable(Throwable e) {
+    return e instanceof TransientDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+  }
+
+  /**
+   * Drops all last-known-good principals, e.g. after roles changed.
+   */
+  public void invalidateAll() {
+    lastKnownGood.invalidateAll();
+  }
+
+  /**
+   * Returns the state of the circuit breaker.
+   *
+   * @return The circuit breaker state.
+   */
+  public CircuitBreaker.State getCircuitBreakerState() {
+    return circuitBreaker.getState();
+  }
+
+  /**
+   * Keeps a password-less copy of a loaded principal, unless an equivalent one is already cached.
+   * Authorities are canonical lists, so comparing them by identity is enough.
+   *
+   * @param username The username.
+   * @param userDetails The principal loaded from the database.
+   */
+  private void remember(String username, UserDetails userDetails) {
+    if (!(userDetails instanceof UserDetailsImpl principal)) {
+      return;
+    }
+    UserDetailsImpl cached = lastKnownGood.getIfPresent(username);
+    if (cached == null || cached.getAuthorities() != principal.getAuthorities()) {
+      lastKnownGood.put(username, principal.withoutPassword());
+    }
+  }
+
+  /**
+   * Returns the last-known-good principal, or else a principal built from the claims.
+   *
+   * @param username The username.
+   * @param claims The verified claims of the token.
+   * @return The fallback principal.
+   */
+  private Resolved fallback(String username, Claims claims) {
+    UserDetailsImpl cached = lastKnownGood.getIfPresent(username);
+    if (cached != null) {
+      Span.current().setAttribute(AuthTracing.PRINCIPAL_SOURCE, "cache");
+      return new Resolved(cached, false);
+    }
+
+    Span.current().setAttribute(AuthTracing.PRINCIPAL_SOURCE, "claims");
+    return new Resolved(UserDetailsImpl.fromClaims(JwtUtils.userId(claims), username,
+            TokenVerifier.roles(claims)), false);
+  }
+
+  /**
+   * A resolved principal.
+   *
+   * @param principal The principal.
+   * @param fromDatabase Whether the principal was loaded from the database, rather than from the last-known-good
+   *                     cache or the claims, so its roles and existence are current.
+   */
+  public record Resolved(UserDetails principal, boolean fromDatabase) {
+  }
+}
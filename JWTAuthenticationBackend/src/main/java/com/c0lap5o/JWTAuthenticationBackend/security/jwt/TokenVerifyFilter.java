@@ -0,0 +1,98 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import com.c0lap5o.jwtverifier.JwtVerificationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Answers the subrequests reverse proxies send to authenticate a request (e.g. nginx auth_request).
+ * It runs before every other filter and ends the request itself: 204 with the subject and roles in headers for a
+ * valid bearer token, 401 with an empty body otherwise. No security filter chain, MVC dispatch or JSON is involved,
+ * and repeated tokens are served from the verified-token cache.
+ * Only the proxy may call it: it must send the shared secret in the X-Verify-Secret header, otherwise the request
+ * is answered with 403 without looking at the token, so the endpoint cannot be used as an anonymous token oracle.
+ * Without a configured secret every request is rejected.
+ */
+public class TokenVerifyFilter extends OncePerRequestFilter {
+
+  /**
+   * The path of the endpoint.
+   */
+  public static final String PATH = "/api/auth/verify";
+
+  /**
+   * The response header holding the subject (username) of a valid token.
+   */
+  public static final String SUBJECT_HEADER = "X-Auth-Subject";
+
+  /**
+   * The response header holding the comma-separated roles of a valid token.
+   */
+  public static final String ROLES_HEADER = "X-Auth-Roles";
+
+  /**
+   * The request header holding the secret shared with the proxy.
+   */
+  public static final String SECRET_HEADER = "X-Verify-Secret";
+
+  /**
+   * Cache of verified tokens.
+   */
+  private final VerifiedTokenCache verifiedTokenCache;
+
+  /**
+   * The secret shared with the proxy, or null if none is configured.
+   */
+  private final byte[] proxySecret;
+
+  /**
+   * Constructor to initialize the filter with the verified-token cache and the proxy's secret.
+   *
+   * @param verifiedTokenCache Cache of verified tokens.
+   * @param proxySecret The secret shared with the proxy; null or empty rejects every request.
+   */
+  public TokenVerifyFilter(VerifiedTokenCache verifiedTokenCache, String proxySecret) {
+    this.verifiedTokenCache = verifiedTokenCache;
+    this.proxySecret = proxySecret == null || proxySecret.isEmpty()
+            ? null : proxySecret.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Verifies the bearer token of the request and answers it, without passing it down the chain.
+   *
+   * @param request The HttpServletRequest object.
+   * @param response The HttpServletResponse object.
+   * @param filterChain The FilterChain, which is not continued.
+   */
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain filterChain) {
+    // Only answer the proxy; the comparison takes the same time however much of the secret matches
+    String secret = request.getHeader(SECRET_HEADER);
+    if (proxySecret == null || secret == null
+            || !MessageDigest.isEqual(proxySecret, secret.getBytes(StandardCharsets.UTF_8))) {
+      response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+
+    // Verify the token, or reuse the result of a recent verification
+    String token = JwtVerificationFilter.resolveBearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+    VerifiedTokenCache.VerifiedToken verified = token == null ? null : verifiedTokenCache.verify(token);
+
+    // Answer with a status only; setStatus rather than sendError, so no error page is dispatched
+    if (verified == null) {
+      response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
+    }
+    response.setHeader(SUBJECT_HEADER, verified.subject());
+    response.setHeader(ROLES_HEADER, verified.roles());
+    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+  }
+}
@@ -0,0 +1,108 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.jwt;
+
+import com.c0lap5o.jwtverifier.TokenVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of verified tokens, for callers that see the same token many times in a row, such as a
+ * reverse proxy checking every request of a page load.
+ * Only valid tokens are cached, so junk tokens cannot flush it, and an entry never outlives its token. A token
+ * stays accepted for up to the TTL after its key was removed from the key ring, which is why the TTL is short.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  /**
+   * Utility class for handling JWT tokens.
+   */
+  private final JwtUtils jwtUtils;
+
+  /**
+   * Verified tokens by their compact form.
+   */
+  private final Cache<String, VerifiedToken> cache;
+
+  /**
+   * Constructor to inject dependencies and configure the cache.
+   *
+   * @param jwtUtils Utility class for handling JWT tokens.
+   * @param cacheTtlMs How long a verified token is cached at most, in milliseconds.
+   * @param cacheSize Maximum number of cached tokens.
+   */
+  public VerifiedTokenCache(JwtUtils jwtUtils,
+                            @Value("${app.verify.cacheTtlMs:5000}") long cacheTtlMs,
+                            @Value("${app.verify.cacheSize:10000}") long cacheSize) {
+    this.jwtUtils = jwtUtils;
+    this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfter(new TokenExpiry(TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)))
+            .build();
+  }
+
+  /**
+   * Verifies a token, or returns the cached result of an earlier verification.
+   *
+   * @param token The compact token.
+   * @return The verified token, or null if it is invalid or expired.
+   */
+  public VerifiedToken verify(String token) {
+    return cache.get(token, this::load);
+  }
+
+  /**
+   * Verifies a token that is not cached.
+   *
+   * @param token The compact token.
+   * @return The verified token, or null (which is not cached) if it is invalid or expired.
+   */
+  private VerifiedToken load(String token) {
+    Claims claims = jwtUtils.parseClaimsQuietly(token);
+    if (claims == null) {
+      return null;
+    }
+    long expiresAtMs = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+    return new VerifiedToken(claims.getSubject(), String.join(",", TokenVerifier.roles(claims)), expiresAtMs);
+  }
+
+  /**
+   * Expires an entry after the TTL, or when its token expires if that is sooner; reads and updates keep the
+   * remaining time.
+   *
+   * @param ttlNanos The TTL, in nanoseconds.
+   */
+  private record TokenExpiry(long ttlNanos) implements Expiry<String, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+      long remainingMs = verified.expiresAtMs() - System.currentTimeMillis();
+      return Math.max(0, Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMs)));
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  /**
+   * The parts of a verified token that callers pass on, precomputed once per cache entry.
+   *
+   * @param subject The subject (username).
+   * @param roles The roles, comma-separated.
+   * @param expiresAtMs The expiration time of the token, in epoch milliseconds.
+   */
+  public record VerifiedToken(String subject, String roles, long expiresAtMs) {
+  }
+}
@@ -0,0 +1,63 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checks new passwords against a local list of breached passwords, compiled into a bloom filter file by
+ * {@link BreachedPasswordFilterCompiler}.
+ * The file is memory-mapped read-only at startup, so the filter lives off-heap in the page cache, shared between
+ * instances on the same host, and a check is one SHA-1 digest and a fixed number of bit reads. A bloom filter has
+ * no false negatives; its false positives, at the rate chosen when compiling, reject a few safe passwords.
+ * Without app.breachedPasswords.file the check is disabled.
+ */
+@Slf4j
+@Component
+public class BreachedPasswordChecker {
+
+  /**
+   * The mapped filter, or null if the check is disabled.
+   */
+  private final PasswordBloomFilter filter;
+
+  /**
+   * Constructor to map the filter file, if one is configured; it fails if the file is missing or invalid.
+   *
+   * @param file The path of the filter file, may be empty.
+   */
+  public BreachedPasswordChecker(@Value("${app.breachedPasswords.file:}") String file) {
+    if (!StringUtils.hasText(file)) {
+      log.info("Breached password check disabled, no app.breachedPasswords.file configured");
+      this.filter = null;
+      return;
+    }
+
+    // The mapping stays valid after the channel is closed
+    try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+      this.filter = PasswordBloomFilter.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalStateException("Cannot load breached password filter " + file + ": " + e.getMessage(), e);
+    }
+    log.info("Mapped breached password filter {} with {} entries, expected false-positive rate {}", file,
+            filter.entries(), PasswordBloomFilter.falsePositiveRate(filter.entries(), filter.numBits(),
+                    filter.numHashes()));
+  }
+
+  /**
+   * Returns whether a password is (probably) in the breached password list.
+   *
+   * @param password The plaintext password.
+   * @return True if it is in the list or a false positive, false if it is certainly not in the list or the check
+   *         is disabled.
+   */
+  public boolean isBreached(String password) {
+    return filter != null && filter.mightContain(PasswordBloomFilter.sha1(password));
+  }
+}
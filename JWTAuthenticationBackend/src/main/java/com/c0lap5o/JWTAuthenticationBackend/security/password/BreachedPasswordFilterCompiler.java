@@ -0,0 +1,141 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.password;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Command-line tool compiling a local list of breached passwords into a {@link PasswordBloomFilter} file.
+ * The list holds one SHA-1 hash in hex per line, optionally followed by ":count" as in the Have I Been Pwned
+ * downloads, or one plaintext password per line with --plaintext. It is read twice, once to count the entries
+ * and once to add them, so lists of any length can be compiled with a heap the size of the filter.
+ *
+ * <pre>
+ * java -cp target/classes com.c0lap5o.JWTAuthenticationBackend.security.password.BreachedPasswordFilterCompiler \
+ *      [--fpp 0.001] [--max-bytes 536870912] [--plaintext] pwned-passwords-sha1.txt breached-passwords.bloom
+ * </pre>
+ */
+public final class BreachedPasswordFilterCompiler {
+
+  /**
+   * The length of a SHA-1 hash in hex.
+   */
+  private static final int SHA1_HEX_LENGTH = 40;
+
+  /**
+   * Constructor, not used.
+   */
+  private BreachedPasswordFilterCompiler() {
+  }
+
+  /**
+   * Compiles the list given on the command line.
+   *
+   * @param args The options, the input list and the output file.
+   * @throws IOException If the list cannot be read or the filter cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    double falsePositiveRate = 0.001;
+    long maxBytes = Integer.MAX_VALUE - PasswordBloomFilter.HEADER_BYTES;
+    boolean plaintext = false;
+    int i = 0;
+    for (; i < args.length && args[i].startsWith("--"); i++) {
+      switch (args[i]) {
+        case "--fpp" -> falsePositiveRate = Double.parseDouble(args[++i]);
+        case "--max-bytes" -> maxBytes = Long.parseLong(args[++i]);
+        case "--plaintext" -> plaintext = true;
+        default -> usage("Unknown option " + args[i]);
+      }
+    }
+    if (args.length - i != 2 || falsePositiveRate <= 0 || falsePositiveRate >= 1 || maxBytes <= 0) {
+      usage(null);
+    }
+
+    PasswordBloomFilter filter = compile(Path.of(args[i]), Path.of(args[i + 1]), falsePositiveRate, maxBytes,
+            plaintext);
+    System.out.printf(Locale.ROOT, "Wrote %d entries in %d bytes with %d hash functions, expected false-positive "
+                    + "rate %.6f%n", filter.entries(), filter.buffer().capacity(), filter.numHashes(),
+            PasswordBloomFilter.falsePositiveRate(filter.entries(), filter.numBits(), filter.numHashes()));
+  }
+
+  /**
+   * Compiles a list into a filter file, sized for the false-positive rate unless that exceeds the byte budget.
+   *
+   * @param input The list of breached passwords.
+   * @param output The filter file to write; it is replaced atomically.
+   * @param falsePositiveRate The target false-positive rate.
+   * @param maxBytes The maximum size of the bit array in bytes.
+   * @param plaintext Whether the list holds plaintext passwords rather than SHA-1 hashes.
+   * @return The compiled filter.
+   * @throws IOException If the list cannot be read or the filter cannot be written.
+   */
+  public static PasswordBloomFilter compile(Path input, Path output, double falsePositiveRate, long maxBytes,
+                                            boolean plaintext) throws IOException {
+    // First pass: count the entries to size the filter
+    long entries;
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      entries = reader.lines().filter(line -> !line.isBlank()).count();
+    }
+    long numBits = Math.min(PasswordBloomFilter.optimalBits(entries, falsePositiveRate),
+            Math.min(maxBytes, PasswordBloomFilter.MAX_BITS / 8) * 8);
+    PasswordBloomFilter filter = PasswordBloomFilter.create(numBits,
+            PasswordBloomFilter.optimalHashes(entries, numBits), entries);
+
+    // Second pass: add the entries
+    HexFormat hex = HexFormat.of();
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      String line;
+      long lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (plaintext) {
+          filter.put(PasswordBloomFilter.sha1(line));
+          continue;
+        }
+        String hash = line.strip();
+        int colon = hash.indexOf(':');
+        hash = colon < 0 ? hash : hash.substring(0, colon);
+        if (hash.length() != SHA1_HEX_LENGTH) {
+          throw new IllegalArgumentException("Line " + lineNumber + " is not a SHA-1 hash");
+        }
+        filter.put(hex.parseHex(hash));
+      }
+    }
+
+    // Write to a temporary file first, so a running application never maps a half-written filter
+    Path temporary = Files.createTempFile(output.toAbsolutePath().getParent(), "breached-passwords", ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = filter.buffer();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return filter;
+  }
+
+  /**
+   * Prints the usage and exits.
+   *
+   * @param error The error to print first, may be null.
+   */
+  private static void usage(String error) {
+    if (error != null) {
+      System.err.println(error);
+    }
+    System.err.println("Usage: BreachedPasswordFilterCompiler [--fpp <rate>] [--max-bytes <bytes>] [--plaintext] "
+            + "<input list> <output filter>");
+    System.exit(2);
+  }
+}
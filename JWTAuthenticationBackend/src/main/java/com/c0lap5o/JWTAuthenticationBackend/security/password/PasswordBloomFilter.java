@@ -0,0 +1,240 @@
+package com.c0lap5o.JWTAuthenticationBackend.security.password;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Bloom filter of SHA-1 password hashes, stored in a flat file so it can be memory-mapped instead of loaded.
+ * The file is a 32-byte big-endian header (magic, version, number of bits, number of hash functions, number of
+ * entries) followed by the bit array. The probe positions are derived from the SHA-1 digest itself, which is
+ * already uniformly distributed, by double hashing, so a lookup is one digest and a fixed number of bit reads.
+ * It only uses the JDK, so the compiler can run without the application's dependencies.
+ */
+public final class PasswordBloomFilter {
+
+  /**
+   * The magic number at the start of a filter file, "PWBF".
+   */
+  public static final int MAGIC = 0x50574246;
+
+  /**
+   * The version of the file format.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int HEADER_BYTES = 32;
+
+  /**
+   * The largest bit array that fits into a single mapped buffer.
+   */
+  public static final long MAX_BITS = (Integer.MAX_VALUE - HEADER_BYTES) * 8L;
+
+  /**
+   * The header and bit array.
+   */
+  private final ByteBuffer buffer;
+
+  /**
+   * The number of bits in the array.
+   */
+  private final long numBits;
+
+  /**
+   * The number of probes per entry.
+   */
+  private final int numHashes;
+
+  /**
+   * The number of entries the filter was built from.
+   */
+  private final long entries;
+
+  /**
+   * Constructor reading the header of a buffer holding a filter.
+   *
+   * @param buffer The header and bit array, e.g. a mapped file.
+   * @throws IllegalArgumentException If the buffer does not hold a valid filter.
+   */
+  private PasswordBloomFilter(ByteBuffer buffer) {
+    this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a password bloom filter");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported password bloom filter version " + buffer.getInt(4));
+    }
+    this.numBits = buffer.getLong(8);
+    this.numHashes = buffer.getInt(16);
+    this.entries = buffer.getLong(20);
+    if (numBits <= 0 || numHashes <= 0 || HEADER_BYTES + (numBits + 7) / 8 > buffer.capacity()) {
+      throw new IllegalArgumentException("Corrupt password bloom filter header");
+    }
+  }
+
+  /**
+   * Wraps a buffer holding a filter, without copying it.
+   *
+   * @param buffer The header and bit array.
+   * @return The filter.
+   * @throws IllegalArgumentException If the buffer does not hold a valid filter.
+   */
+  public static PasswordBloomFilter wrap(ByteBuffer buffer) {
+    return new PasswordBloomFilter(buffer);
+  }
+
+  /**
+   * Creates an empty filter on the heap, to be filled and written to a file.
+   *
+   * @param numBits The number of bits in the array.
+   * @param numHashes The number of probes per entry.
+   * @param entries The number of entries that will be added.
+   * @return The empty filter.
+   */
+  public static PasswordBloomFilter create(long numBits, int numHashes, long entries) {
+    if (numBits <= 0 || numBits > MAX_BITS) {
+      throw new IllegalArgumentException("The filter must have between 1 and " + MAX_BITS + " bits");
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(HEADER_BYTES + (numBits + 7) / 8));
+    buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, numBits).putInt(16, numHashes).putLong(20, entries);
+    return new PasswordBloomFilter(buffer);
+  }
+
+  /**
+   * Returns the number of bits for the given number of entries and false-positive rate.
+   *
+   * @param entries The number of entries.
+   * @param falsePositiveRate The target false-positive rate, between 0 and 1.
+   * @return The number of bits.
+   */
+  public static long optimalBits(long entries, double falsePositiveRate) {
+    double bits = -Math.max(1, entries) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    return Math.max(64, (long) Math.ceil(bits));
+  }
+
+  /**
+   * Returns the number of probes that minimizes the false-positive rate for the given size.
+   *
+   * @param entries The number of entries.
+   * @param numBits The number of bits.
+   * @return The number of probes.
+   */
+  public static int optimalHashes(long entries, long numBits) {
+    return (int) Math.max(1, Math.min(30, Math.round((double) numBits / Math.max(1, entries) * Math.log(2))));
+  }
+
+  /**
+   * Returns the expected false-positive rate of a filter.
+   *
+   * @param entries The number of entries.
+   * @param numBits The number of bits.
+   * @param numHashes The number of probes.
+   * @return The expected false-positive rate.
+   */
+  public static double falsePositiveRate(long entries, long numBits, int numHashes) {
+    return Math.pow(1 - Math.exp(-(double) numHashes * entries / numBits), numHashes);
+  }
+
+  /**
+   * Computes the SHA-1 digest of a password, the form the filter holds it in.
+   *
+   * @param password The password.
+   * @return The 20-byte digest.
+   */
+  public static byte[] sha1(String password) {
+    try {
+      return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not available", e);
+    }
+  }
+
+  /**
+   * Adds a SHA-1 digest to a filter created with {@link #create}.
+   *
+   * @param sha1 The 20-byte digest.
+   */
+  public void put(byte[] sha1) {
+    long h1 = longAt(sha1, 0);
+    long h2 = longAt(sha1, 8);
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, numBits);
+      int index = HEADER_BYTES + (int) (bit >>> 3);
+      buffer.put(index, (byte) (buffer.get(index) | (1 << (int) (bit & 7))));
+    }
+  }
+
+  /**
+   * Tests whether a SHA-1 digest may have been added. It always reads every probe, so the time taken does not
+   * depend on the digest.
+   *
+   * @param sha1 The 20-byte digest.
+   * @return False if it was certainly not added, true if it probably was.
+   */
+  public boolean mightContain(byte[] sha1) {
+    long h1 = longAt(sha1, 0);
+    long h2 = longAt(sha1, 8);
+    int found = 1;
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, numBits);
+      found &= (buffer.get(HEADER_BYTES + (int) (bit >>> 3)) >>> (int) (bit & 7)) & 1;
+    }
+    return found != 0;
+  }
+
+  /**
+   * Reads 8 bytes of a digest as a big-endian long.
+   *
+   * @param bytes The digest.
+   * @param offset The offset of the first byte.
+   * @return The long value.
+   */
+  private static long longAt(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + 8; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the header and bit array, e.g. to write them to a file.
+   *
+   * @return A read-only view of the buffer.
+   */
+  public ByteBuffer buffer() {
+    return buffer.asReadOnlyBuffer().position(0);
+  }
+
+  /**
+   * Returns the number of bits in the array.
+   *
+   * @return The number of bits.
+   */
+  public long numBits() {
+    return numBits;
+  }
+
+  /**
+   * Returns the number of probes per entry.
+   *
+   * @return The number of probes.
+   */
+  public int numHashes() {
+    return numHashes;
+  }
+
+  /**
+   * Returns the number of entries the filter was built from.
+   *
+   * @return The number of entries.
+   */
+  public long entries() {
+    return entries;
+  }
+}
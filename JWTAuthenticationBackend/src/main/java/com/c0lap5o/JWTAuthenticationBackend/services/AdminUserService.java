@@ -0,0 +1,168 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.BulkRoleChangeRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.AdminUserResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.BulkRoleChangeResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.UserPageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRoleRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for browsing users and changing their roles in the admin API.
+ */
+@Slf4j
+@Service
+public class AdminUserService {
+
+  /**
+   * The number of users in a page when none is requested.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 50;
+
+  /**
+   * The maximum number of users in a page.
+   */
+  public static final int MAX_PAGE_SIZE = 500;
+
+  /**
+   * Repository for user data.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Publisher of the role change events that invalidate cached principals.
+   */
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param userRepository Repository for user data.
+   * @param eventPublisher Publisher of the role change events that invalidate cached principals.
+   */
+  public AdminUserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
+    this.userRepository = userRepository;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Returns the page of users following the given cursor.
+   *
+   * @param after The ID of the last user of the previous page, or null for the first page.
+   * @param role The role users must have, or null for all users.
+   * @param size The requested page size, clamped to 1..{@value #MAX_PAGE_SIZE}.
+   * @return The page of users and the cursor of the next page.
+   */
+  @Transactional(readOnly = true)
+  public UserPageResponse listUsers(Long after, ERole role, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+    // Fetch one extra user to find out whether there is a next page
+    List<UserRoleRow> rows = userRepository.findPageWithRoles(after == null ? 0 : after,
+            role == null ? null : role.name(), pageSize + 1);
+
+    // Fold the consecutive rows of each user into one response, keeping the ID order
+    Map<Long, AdminUserResponse> users = new LinkedHashMap<>();
+    for (UserRoleRow row : rows) {
+      AdminUserResponse user = users.computeIfAbsent(row.getId(), id -> AdminUserResponse.builder()
+              .id(id)
+              .username(row.getUsername())
+              .email(row.getEmail())
+              .roles(new ArrayList<>())
+              .lastLoginAt(toInstant(row.getLastLoginAt()))
+              .loginCount(row.getLoginCount() == null ? 0 : row.getLoginCount())
+              .build());
+      if (row.getRole() != null) {
+        user.getRoles().add(row.getRole());
+      }
+    }
+
+    List<AdminUserResponse> page = new ArrayList<>(users.values());
+    if (page.size() <= pageSize) {
+      return UserPageResponse.builder().users(page).build();
+    }
+
+    // Drop the extra user; the cursor is the last user actually returned
+    page = page.subList(0, pageSize);
+    return UserPageResponse.builder()
+            .users(page)
+            .nextCursor(page.get(pageSize - 1).getId())
+            .build();
+  }
+
+  /**
+   * Grants a role to the selected users with a single set-based INSERT on "user_roles".
+   * Cached roles are invalidated through a UserRolesChangedEvent, once the change is committed.
+   *
+   * @param request The role and the selection of users.
+   * @return The role and the number of users who were granted it.
+   */
+  @Transactional
+  public BulkRoleChangeResponse assignRole(BulkRoleChangeRequest request) {
+    String role = request.getRole().name();
+    int affected = request.getUserIds() != null
+            ? userRepository.assignRoleToUsers(role, request.getUserIds())
+            : userRepository.assignRoleToUsersWithRole(role, request.getWithRole().name());
+
+    log.info("Granted {} to {} users", role, affected);
+    eventPublisher.publishEvent(new UserRolesChangedEvent(request.getRole(), affected));
+    return new BulkRoleChangeResponse(request.getRole(), affected);
+  }
+
+  /**
+   * Revokes a role from the selected users with a single set-based DELETE on "user_roles".
+   * Cached roles are invalidated through a UserRolesChangedEvent, once the change is committed.
+   *
+   * @param request The role and the selection of users.
+   * @return The role and the number of users who lost it.
+   */
+  @Transactional
+  public BulkRoleChangeResponse revokeRole(BulkRoleChangeRequest request) {
+    String role = request.getRole().name();
+    int affected = request.getUserIds() != null
+            ? userRepository.revokeRoleFromUsers(role, request.getUserIds())
+            : userRepository.revokeRoleFromUsersWithRole(role, request.getWithRole().name());
+
+    log.info("Revoked {} from {} users", role, affected);
+    eventPublisher.publishEvent(new UserRolesChangedEvent(request.getRole(), affected));
+    return new BulkRoleChangeResponse(request.getRole(), affected);
+  }
+
+  /**
+   * Converts a timestamp read by a native query to an Instant.
+   * Drivers without time zone support return a local date-time, which was written in the JVM time zone.
+   *
+   * @param value The driver-specific timestamp, may be null.
+   * @return The Instant, or null if the value is null.
+   */
+  static Instant toInstant(Object value) {
+    if (value == null || value instanceof Instant) {
+      return (Instant) value;
+    }
+    if (value instanceof OffsetDateTime offsetDateTime) {
+      return offsetDateTime.toInstant();
+    }
+    if (value instanceof Timestamp timestamp) {
+      return timestamp.toInstant();
+    }
+    if (value instanceof LocalDateTime localDateTime) {
+      return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+    throw new IllegalArgumentException("Unsupported timestamp type: " + value.getClass().getName());
+  }
+}
@@ -0,0 +1,193 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.MessageResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded TTL store of the responses to requests sent with an Idempotency-Key header, so a client retrying a
+ * request that timed out gets the response of the first execution instead of running it again.
+ * Each key holds a fingerprint of the request and a future of its response: a duplicate that arrives while the
+ * first execution is still running waits on that future, a later one gets the stored response straight away, and
+ * a request that reuses a key for a different body is rejected with 422. Only responses are stored; an execution
+ * that throws frees the key, so a retry runs again. The store is local to this instance.
+ */
+@Slf4j
+@Component
+public class IdempotentResponseStore {
+
+  /**
+   * The request header carrying the idempotency key.
+   */
+  public static final String KEY_HEADER = "Idempotency-Key";
+
+  /**
+   * The response header marking a stored response that was replayed.
+   */
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  /**
+   * The longest accepted idempotency key.
+   */
+  public static final int MAX_KEY_LENGTH = 255;
+
+  /**
+   * Executions by idempotency key.
+   */
+  private final Cache<String, Execution> executions;
+
+  /**
+   * How long a duplicate waits for the first execution, in milliseconds.
+   */
+  private final long waitTimeoutMs;
+
+  /**
+   * Constructor to configure the store.
+   *
+   * @param ttlMs How long a response is kept after its request arrived, in milliseconds.
+   * @param maxKeys Maximum number of keys kept.
+   * @param waitTimeoutMs How long a duplicate waits for the first execution, in milliseconds.
+   */
+  public IdempotentResponseStore(@Value("${app.idempotency.ttlMs:3600000}") long ttlMs,
+                                 @Value("${app.idempotency.maxKeys:100000}") long maxKeys,
+                                 @Value("${app.idempotency.waitTimeoutMs:10000}") long waitTimeoutMs) {
+    this.executions = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    this.waitTimeoutMs = waitTimeoutMs;
+  }
+
+  /**
+   * Runs a request once per idempotency key and returns its response to every request with the same key.
+   *
+   * @param key The idempotency key, or null to run the request without one.
+   * @param fingerprint The fingerprint of the request, see {@link #fingerprint}.
+   * @param action Runs the request.
+   * @return The response of the first execution, or an error response if the key is invalid, was used for a
+   *         different request, or its first execution is still running after the wait timeout.
+   */
+  public ResponseEntity<?> execute(String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+    if (key == null) {
+      return action.get();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      return ResponseEntity
+              .badRequest()
+              .body(new MessageResponse("Error: " + KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH
+                      + " characters!"));
+    }
+
+    while (true) {
+      // Claim the key, or find the execution that already did
+      Execution mine = new Execution(fingerprint, new CompletableFuture<>());
+      Execution existing = executions.asMap().putIfAbsent(key, mine);
+      if (existing == null) {
+        return run(key, mine, action);
+      }
+
+      // A key must not be reused for a different request
+      if (!existing.fingerprint().equals(fingerprint)) {
+        return ResponseEntity
+                .unprocessableEntity()
+                .body(new MessageResponse("Error: " + KEY_HEADER + " was already used for a different request!"));
+      }
+
+      // Wait for the first execution; if it failed, the key is free again and this request runs instead
+      try {
+        return replayed(existing.response().get(waitTimeoutMs, TimeUnit.MILLISECONDS));
+      } catch (ExecutionException e) {
+        log.debug("First execution for idempotency key failed, running again: {}", e.getCause().getMessage());
+      } catch (TimeoutException e) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("Error: A request with this " + KEY_HEADER + " is still in progress!"));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the first execution", e);
+      }
+    }
+  }
+
+  /**
+   * Runs the request for a claimed key and completes its execution.
+   *
+   * @param key The idempotency key.
+   * @param execution The execution that claimed the key.
+   * @param action Runs the request.
+   * @return The response.
+   */
+  private ResponseEntity<?> run(String key, Execution execution, Supplier<ResponseEntity<?>> action) {
+    ResponseEntity<?> response;
+    try {
+      response = action.get();
+    } catch (RuntimeException | Error e) {
+      // Free the key before waking the duplicates, so one of them can claim it
+      executions.asMap().remove(key, execution);
+      execution.response().completeExceptionally(e);
+      throw e;
+    }
+    execution.response().complete(response);
+    return response;
+  }
+
+  /**
+   * Copies a stored response, marking it as replayed.
+   *
+   * @param response The stored response.
+   * @return The copy.
+   */
+  private static ResponseEntity<?> replayed(ResponseEntity<?> response) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(response.getHeaders());
+    headers.set(REPLAYED_HEADER, "true");
+    return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+  }
+
+  /**
+   * Computes the fingerprint of a request from its fields, as a SHA-256 digest so no field, such as a password,
+   * is kept in the store.
+   *
+   * @param fields The fields of the request, in a fixed order; null fields are allowed.
+   * @return The fingerprint in hex.
+   */
+  public static String fingerprint(String... fields) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String field : fields) {
+        // Prefix each field with its length, so fields cannot shift into each other
+        String value = field == null ? "-;" : field.length() + ":" + field;
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * The execution of a request with an idempotency key.
+   *
+   * @param fingerprint The fingerprint of the request.
+   * @param response The response, completed once the request was run.
+   */
+  private record Execution(String fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+  }
+}
@@ -0,0 +1,147 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind tracker for the last login time and login count of users.
+ * Successful logins are coalesced per user in memory and flushed periodically as one JDBC batch UPDATE,
+ * so several logins by the same user between flushes produce a single row update and sign-in never waits on
+ * a write to the "users" table. The batch runs in one transaction, so a failed flush updates no row and all of its
+ * logins can be retried without counting any of them twice.
+ */
+@Slf4j
+@Component
+public class LoginActivityTracker {
+
+  /**
+   * Update statement applying the coalesced logins of one user.
+   */
+  private static final String UPDATE_SQL =
+          "UPDATE users SET login_count = login_count + ?, last_login_at = ? WHERE id = ?";
+
+  /**
+   * Pending logins per user id, waiting to be flushed.
+   */
+  private final ConcurrentHashMap<Long, PendingLogins> pending = new ConcurrentHashMap<>();
+
+  /**
+   * JdbcTemplate used for the batch updates.
+   */
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Template for the transaction each batch runs in.
+   */
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * EntityManagerFactory used to evict flushed users from the second-level cache.
+   */
+  private final EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param jdbcTemplate JdbcTemplate used for the batch updates.
+   * @param entityManagerFactory EntityManagerFactory used to evict flushed users from the second-level cache.
+   * @param transactionManager The transaction manager of the application.
+   */
+  public LoginActivityTracker(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  /**
+   * Records a successful login, coalescing it with any pending logins of the same user.
+   *
+   * @param userId The id of the user who logged in.
+   */
+  public void recordLogin(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    pending.merge(userId, new PendingLogins(1, Instant.now()), PendingLogins::merge);
+  }
+
+  /**
+   * Flushes the pending logins as one batch of row updates.
+   */
+  @Scheduled(fixedDelayString = "${app.loginTracking.flushIntervalMs:5000}")
+  public void flush() {
+    // Take each pending entry out of the map atomically; logins recorded meanwhile start a new entry
+    List<Map.Entry<Long, PendingLogins>> batch = new ArrayList<>();
+    for (Long userId : pending.keySet()) {
+      PendingLogins logins = pending.remove(userId);
+      if (logins != null) {
+        batch.add(Map.entry(userId, logins));
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    try {
+      // Bind the time in UTC, like Hibernate stores the Instant, not in the JVM's default time zone
+      transactionTemplate.executeWithoutResult(status ->
+              jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getValue().count());
+                ps.setObject(2, OffsetDateTime.ofInstant(entry.getValue().lastLoginAt(), ZoneOffset.UTC));
+                ps.setLong(3, entry.getKey());
+              }));
+    } catch (Exception e) {
+      // The transaction rolled back every row, so put all the logins back to be retried on the next flush
+      log.error("Failed to flush login activity of {} users: {}", batch.size(), e.getMessage());
+      batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), PendingLogins::merge));
+      return;
+    }
+
+    // The rows were updated behind Hibernate's back, so drop the stale cached copies
+    batch.forEach(entry -> entityManagerFactory.getCache().evict(User.class, entry.getKey()));
+  }
+
+  /**
+   * Flushes the remaining logins on shutdown.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  /**
+   * The coalesced logins of a user since the last flush.
+   *
+   * @param count The number of logins.
+   * @param lastLoginAt The time of the latest login.
+   */
+  private record PendingLogins(long count, Instant lastLoginAt) {
+
+    /**
+     * Combines two pending entries of the same user.
+     *
+     * @param other The other entry.
+     * @return The combined entry.
+     */
+    PendingLogins merge(PendingLogins other) {
+      Instant latest = lastLoginAt.isAfter(other.lastLoginAt) ? lastLoginAt : other.lastLoginAt;
+      return new PendingLogins(count + other.count, latest);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops cached principal data when user roles change outside of the entity mappings.
+ * It runs after the change is committed, so a concurrent lookup cannot cache the old roles again afterwards.
+ */
+@Slf4j
+@Component
+public class PrincipalCacheInvalidator {
+
+  /**
+   * The second-level cache region holding the role collections of users.
+   */
+  private static final String USER_ROLES_REGION = User.class.getName() + ".roles";
+
+  /**
+   * EntityManagerFactory used to evict role collections from the second-level cache.
+   */
+  private final EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Resolver whose last-known-good principals are dropped along with the cached roles.
+   */
+  private final PrincipalResolver principalResolver;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param entityManagerFactory EntityManagerFactory used to evict role collections from the second-level cache.
+   * @param principalResolver Resolver whose last-known-good principals are dropped along with the cached roles.
+   */
+  public PrincipalCacheInvalidator(EntityManagerFactory entityManagerFactory, PrincipalResolver principalResolver) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.principalResolver = principalResolver;
+  }
+
+  /**
+   * Evicts the cached role collections and last-known-good principals of all users once a role change is committed.
+   * Bulk changes can touch any number of users, so the region is dropped as a whole rather than per user.
+   *
+   * @param event The committed role change.
+   */
+  @TransactionalEventListener
+  public void onUserRolesChanged(UserRolesChangedEvent event) {
+    if (event.affected() == 0) {
+      return;
+    }
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(USER_ROLES_REGION);
+    principalResolver.invalidateAll();
+    log.debug("Evicted cached user roles after {} change(s) to {}", event.affected(), event.role());
+  }
+}
@@ -0,0 +1,106 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.TokenIntrospection;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.jwtverifier.TokenVerifier;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Service verifying batches of JWT tokens on behalf of gateways.
+ * Large batches are verified in parallel on a dedicated ForkJoinPool, so signature checks neither compete with
+ * the common pool nor block request threads beyond the one serving the batch.
+ */
+@Service
+public class TokenIntrospectionService {
+
+  /**
+   * Utility for verifying JWT tokens with the shared parser.
+   */
+  private final JwtUtils jwtUtils;
+
+  /**
+   * Dedicated pool for verifying large batches in parallel.
+   */
+  private final ForkJoinPool verificationPool;
+
+  /**
+   * The batch size from which tokens are verified in parallel.
+   */
+  private final int parallelThreshold;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param jwtUtils Utility for verifying JWT tokens with the shared parser.
+   * @param parallelism Number of threads verifying tokens in parallel, 0 for the number of processors.
+   * @param parallelThreshold The batch size from which tokens are verified in parallel.
+   */
+  public TokenIntrospectionService(JwtUtils jwtUtils,
+                                   @Value("${app.introspect.parallelism:0}") int parallelism,
+                                   @Value("${app.introspect.parallelThreshold:32}") int parallelThreshold) {
+    this.jwtUtils = jwtUtils;
+    this.verificationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Introspects a batch of tokens.
+   *
+   * @param tokens The tokens to introspect.
+   * @return The introspection results, in the same order as the tokens.
+   */
+  public List<TokenIntrospection> introspect(List<String> tokens) {
+    // Small batches are cheaper to verify on the calling thread than to hand off
+    if (tokens.size() < parallelThreshold) {
+      return introspect(tokens.stream());
+    }
+
+    // A parallel stream started from inside the pool runs its tasks on that pool
+    return verificationPool.submit(() -> introspect(tokens.parallelStream())).join();
+  }
+
+  /**
+   * Introspects a single token.
+   *
+   * @param token The token to introspect, may be null.
+   * @return The introspection result.
+   */
+  public TokenIntrospection introspect(String token) {
+    Claims claims = token == null || token.isEmpty() ? null : jwtUtils.parseClaimsQuietly(token);
+    if (claims == null) {
+      return TokenIntrospection.inactive();
+    }
+
+    return TokenIntrospection.builder()
+            .active(true)
+            .sub(claims.getSubject())
+            .roles(TokenVerifier.roles(claims))
+            .exp(claims.getExpiration() == null ? null : claims.getExpiration().getTime() / 1000)
+            .build();
+  }
+
+  /**
+   * Stops the verification pool.
+   */
+  @PreDestroy
+  public void shutdown() {
+    verificationPool.shutdown();
+  }
+
+  /**
+   * Maps a stream of tokens to their introspection results, keeping the encounter order.
+   *
+   * @param tokens The stream of tokens.
+   * @return The introspection results.
+   */
+  private List<TokenIntrospection> introspect(Stream<String> tokens) {
+    return tokens.map(this::introspect).toList();
+  }
+}
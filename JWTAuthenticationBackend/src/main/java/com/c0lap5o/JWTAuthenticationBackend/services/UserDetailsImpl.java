@@ -1,16 +1,15 @@
 package com.c0lap5o.JWTAuthenticationBackend.services;
 
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
 import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleMask;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the UserDetails interface to represent a user's details for Spring Security.
@@ -50,6 +49,19 @@ public class UserDetailsImpl implements UserDetails {
    */
   private Collection<? extends GrantedAuthority> authorities;
 
+  /**
+   * The bitset of roles reachable from the user's authorities through the role hierarchy.
+   * It is computed once per principal and used for fast access checks.
+   */
+  @Getter
+  private int reachableRoles;
+
+  /**
+   * Whether the principal was built from a token's claims instead of the stored user, see {@link #fromClaims}.
+   */
+  @Getter
+  private boolean degraded;
+
   /**
    * Constructor to initialize the UserDetailsImpl object with the given parameters.
    *
@@ -66,6 +78,7 @@ public class UserDetailsImpl implements UserDetails {
     this.email = email;
     this.password = password;
     this.authorities = authorities;
+    this.reachableRoles = RoleMask.reachable(authorities);
   }
 
   /**
@@ -75,10 +88,11 @@ public class UserDetailsImpl implements UserDetails {
    * @return A UserDetailsImpl object representing the user's details.
    */
   public static UserDetailsImpl build(User user) {
-    // Convert the user's roles to a list of GrantedAuthority objects
-    List<GrantedAuthority> authorities = user.getRoles().stream()
-            .map(role -> new SimpleGrantedAuthority(role.getName().name()))
-            .collect(Collectors.toList());
+    // Collect the user's roles as a bitset, and use the shared authority list of that bitset
+    int roles = 0;
+    for (Role role : user.getRoles()) {
+      roles |= role.getName().mask();
+    }
 
     // Create and return the UserDetailsImpl object
     return new UserDetailsImpl(
@@ -86,7 +100,36 @@ public class UserDetailsImpl implements UserDetails {
             user.getUsername(),
             user.getEmail(),
             user.getPassword(),
-            authorities);
+            RoleMask.authorities(roles));
+  }
+
+  /**
+   * Static method to build a UserDetailsImpl object from the verified claims of a token,
+   * for when the user cannot be loaded from the database.
+   * The principal is degraded: its ID comes from the token's uid claim and is null for tokens issued before that
+   * claim existed, its roles are those at issue time, and it never has an email or password. Code that needs the
+   * stored user, e.g. its email or an ID for auditing, must check {@link #isDegraded()} and fail the request
+   * (503) rather than proceed with nulls.
+   *
+   * @param id The user ID from the token's uid claim, may be null.
+   * @param username The username from the token's subject.
+   * @param roleNames The role names from the token's roles claim.
+   * @return A UserDetailsImpl object representing the token holder.
+   */
+  public static UserDetailsImpl fromClaims(Long id, String username, Collection<?> roleNames) {
+    UserDetailsImpl principal =
+            new UserDetailsImpl(id, username, null, null, RoleMask.authorities(RoleMask.ofNames(roleNames)));
+    principal.degraded = true;
+    return principal;
+  }
+
+  /**
+   * Returns a copy of this principal without the password hash, to be kept in memory.
+   *
+   * @return The copy without password.
+   */
+  public UserDetailsImpl withoutPassword() {
+    return new UserDetailsImpl(id, username, email, null, authorities);
   }
 
   /**
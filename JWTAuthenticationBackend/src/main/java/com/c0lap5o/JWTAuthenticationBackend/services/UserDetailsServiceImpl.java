@@ -1,6 +1,6 @@
 package com.c0lap5o.JWTAuthenticationBackend.services;
 
-import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReplicaLagFallback;
 import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +22,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
   @Autowired
   private UserRepository userRepository;
 
+  /**
+   * Fallback for lookups that miss on a lagging replica.
+   */
+  @Autowired
+  private ReplicaLagFallback replicaLagFallback;
+
   /**
    * Loads a user by their username.
    *
@@ -30,13 +36,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
    * @throws UsernameNotFoundException If the user is not found with the given username.
    */
   @Override
-  @Transactional
+  @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    // Retrieve the user from the repository
-    User user = userRepository.findByUsername(username)
+    // Retrieve the user from the repository, retrying on the primary in case the replica has not caught up yet
+    return userRepository.findByUsername(username)
+            .map(UserDetailsImpl::build)
+            .or(() -> replicaLagFallback.retryOnPrimary(() -> userRepository.findByUsername(username)
+                    .map(UserDetailsImpl::build)))
             .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
-
-    // Build and return the UserDetailsImpl object from the User entity
-    return UserDetailsImpl.build(user);
   }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import lombok.Getter;
+
+/**
+ * Formats of the user directory export.
+ */
+@Getter
+public enum UserExportFormat {
+
+  /**
+   * Newline-delimited JSON, one user object per line.
+   */
+  NDJSON("application/x-ndjson", "ndjson"),
+
+  /**
+   * Comma-separated values with a header row, roles separated by semicolons.
+   */
+  CSV("text/csv", "csv");
+
+  /**
+   * The content type of the export.
+   */
+  private final String contentType;
+
+  /**
+   * The file extension of the export.
+   */
+  private final String extension;
+
+  /**
+   * Constructor to initialize the format.
+   *
+   * @param contentType The content type of the export.
+   * @param extension The file extension of the export.
+   */
+  UserExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+}
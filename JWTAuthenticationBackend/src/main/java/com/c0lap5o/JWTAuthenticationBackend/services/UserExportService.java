@@ -0,0 +1,184 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.AdminUserResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service streaming the user directory, with the roles of each user, for compliance exports.
+ * Users are read through a forward-only cursor and written as they arrive; the response is flushed and the
+ * persistence context cleared every few rows, so memory stays flat however many users there are.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+  /**
+   * Header row of the CSV export.
+   */
+  private static final String CSV_HEADER = "id,username,email,roles,last_login_at,login_count\n";
+
+  /**
+   * Repository for user data.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * EntityManager cleared periodically during the export.
+   */
+  private final EntityManager entityManager;
+
+  /**
+   * Writer serializing one user per NDJSON line.
+   */
+  private final ObjectWriter jsonWriter;
+
+  /**
+   * The number of users written between two flushes of the response and clears of the persistence context.
+   */
+  private final int flushEvery;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param userRepository Repository for user data.
+   * @param entityManager EntityManager cleared periodically during the export.
+   * @param objectMapper ObjectMapper used for the NDJSON lines.
+   * @param flushEvery The number of users written between two flushes and clears.
+   */
+  public UserExportService(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                           @Value("${app.export.flushEvery:1000}") int flushEvery) {
+    this.userRepository = userRepository;
+    this.entityManager = entityManager;
+    this.jsonWriter = objectMapper.writerFor(AdminUserResponse.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    this.flushEvery = flushEvery;
+  }
+
+  /**
+   * Writes every user to the given stream in the given format.
+   *
+   * @param format The export format.
+   * @param out The stream to write to; it is flushed but not closed.
+   * @return The number of users written.
+   * @throws IOException If an I/O error occurs, e.g. when the client disconnects.
+   */
+  @Transactional(readOnly = true)
+  public long export(UserExportFormat format, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == UserExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+    }
+
+    // Keep the exported users out of the second-level cache; the query hint alone does not cover scrolled rows
+    Session session = entityManager.unwrap(Session.class);
+    CacheMode cacheMode = session.getCacheMode();
+    session.setCacheMode(CacheMode.IGNORE);
+
+    long count = 0;
+    try (Stream<User> users = userRepository.streamAllWithRoles()) {
+      for (User user : (Iterable<User>) users::iterator) {
+        if (format == UserExportFormat.CSV) {
+          writeCsv(writer, user);
+        } else {
+          jsonWriter.writeValue(writer, toResponse(user));
+          writer.write('\n');
+        }
+
+        // Push the rows written so far to the client, and drop the entities already exported
+        if (++count % flushEvery == 0) {
+          writer.flush();
+          entityManager.clear();
+        }
+      }
+    } finally {
+      session.setCacheMode(cacheMode);
+    }
+
+    writer.flush();
+    log.info("Exported {} users as {}", count, format);
+    return count;
+  }
+
+  /**
+   * Maps a user to the exported fields.
+   *
+   * @param user The user.
+   * @return The exported representation of the user.
+   */
+  private static AdminUserResponse toResponse(User user) {
+    return AdminUserResponse.builder()
+            .id(user.getId())
+            .username(user.getUsername())
+            .email(user.getEmail())
+            .roles(user.getRoles().stream().map(role -> role.getName().name()).sorted().toList())
+            .lastLoginAt(user.getLastLoginAt())
+            .loginCount(user.getLoginCount())
+            .build();
+  }
+
+  /**
+   * Writes a user as one CSV row.
+   *
+   * @param writer The writer.
+   * @param user The user.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static void writeCsv(Writer writer, User user) throws IOException {
+    writer.write(String.valueOf(user.getId()));
+    writer.write(',');
+    writer.write(csvField(user.getUsername()));
+    writer.write(',');
+    writer.write(csvField(user.getEmail()));
+    writer.write(',');
+    writer.write(csvField(user.getRoles().stream()
+            .map(Role::getName)
+            .map(Enum::name)
+            .sorted()
+            .collect(Collectors.joining(";"))));
+    writer.write(',');
+    writer.write(user.getLastLoginAt() == null ? "" : user.getLastLoginAt().toString());
+    writer.write(',');
+    writer.write(String.valueOf(user.getLoginCount()));
+    writer.write('\n');
+  }
+
+  /**
+   * Escapes a CSV field, quoting it when it contains a separator, a quote or a line break.
+   * Fields starting with a formula character are prefixed with a quote, so spreadsheets do not evaluate them.
+   *
+   * @param value The field value.
+   * @return The escaped field.
+   */
+  static String csvField(String value) {
+    if (value == null || value.isEmpty()) {
+      return "";
+    }
+    String field = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+    if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+      return field;
+    }
+    return '"' + field.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,13 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+
+/**
+ * Event published when the roles of users were changed behind Hibernate's back, e.g. by a set-based statement.
+ * Listeners holding principals or role collections should drop them once the change is committed.
+ *
+ * @param role The role that was granted or revoked.
+ * @param affected The number of users whose roles changed.
+ */
+public record UserRolesChangedEvent(ERole role, int affected) {
+}
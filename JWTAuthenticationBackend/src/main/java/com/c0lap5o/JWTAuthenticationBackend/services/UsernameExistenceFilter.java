@@ -0,0 +1,290 @@
+package com.c0lap5o.JWTAuthenticationBackend.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UsernameRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory bloom filter of the existing usernames, so lookups of usernames that do not exist (availability checks
+ * while typing, sign-ins and sign-ups with unknown usernames) are mostly answered without a query.
+ * A positive answer must be confirmed in the database. A negative answer is trusted once the first scan has
+ * completed, so it may be stale: a user who signed up on another instance is reported missing here until the next
+ * refresh picks the row up, i.e. for up to one refresh interval plus the replica lag. An insert that commits only
+ * after more than rescanIds higher IDs were seen is missed until the filter is next rebuilt, so size the window for
+ * the longest signup transaction. Sign-ups on this instance are added directly and never go stale.
+ * The filter is built by a streamed scan of all usernames on the first refresh and then kept up to date by
+ * incremental scans. Each incremental scan starts a trailing window of IDs below the highest ID seen, so a user
+ * whose insert became visible after a higher ID was already seen is still picked up. Until the first scan completes,
+ * every username might exist, so callers fall back to the database while the filter warms up.
+ */
+@Slf4j
+@Component
+public class UsernameExistenceFilter {
+
+  /**
+   * Sets the bits of a word.
+   */
+  private static final LongBinaryOperator OR = (word, mask) -> word | mask;
+
+  /**
+   * Repository for user data.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Template for the read-only transactions the scans run in.
+   */
+  private final TransactionTemplate readOnlyTransaction;
+
+  /**
+   * The number of users the filter is sized for at least.
+   */
+  private final long expectedUsers;
+
+  /**
+   * The false-positive rate the filter is sized for.
+   */
+  private final double falsePositiveRate;
+
+  /**
+   * The current filter, or null until the first scan completes.
+   */
+  private volatile Bits bits;
+
+  /**
+   * How many IDs below the highest one seen each incremental scan starts.
+   */
+  private final long rescanIds;
+
+  /**
+   * The highest user ID seen so far.
+   */
+  private long highestSeenId;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param userRepository Repository for user data.
+   * @param transactionManager The transaction manager of the application.
+   * @param expectedUsers The number of users the filter is sized for at least.
+   * @param falsePositiveRate The share of unknown usernames that still need a query.
+   * @param rescanIds How many IDs below the highest one seen each incremental scan starts.
+   */
+  public UsernameExistenceFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                                 @Value("${app.usernameFilter.expectedUsers:1000000}") long expectedUsers,
+                                 @Value("${app.usernameFilter.falsePositiveRate:0.01}") double falsePositiveRate,
+                                 @Value("${app.usernameFilter.rescanIds:1000}") long rescanIds) {
+    this.userRepository = userRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.expectedUsers = expectedUsers;
+    this.falsePositiveRate = falsePositiveRate;
+    this.rescanIds = rescanIds;
+  }
+
+  /**
+   * Returns whether a user with the given username might exist, ignoring case.
+   *
+   * @param username The username.
+   * @return False if no user has the username for certain, true if one might.
+   */
+  public boolean mightExist(String username) {
+    Bits current = bits;
+    return current == null || current.mightContain(User.normalize(username));
+  }
+
+  /**
+   * Adds the username of a user created on this instance, so it is known before the next scan.
+   *
+   * @param username The username.
+   */
+  public void add(String username) {
+    Bits current = bits;
+    if (current != null) {
+      current.put(User.normalize(username));
+    }
+  }
+
+  /**
+   * Returns whether the first scan has completed.
+   *
+   * @return True if negative answers come from the filter.
+   */
+  public boolean isReady() {
+    return bits != null;
+  }
+
+  /**
+   * Builds the filter on the first call, then adds the users from a trailing window below the highest ID seen on.
+   * The filter is rebuilt, twice as large, once it holds more users than it was sized for.
+   * A failed scan is logged and keeps the current filter.
+   */
+  @Scheduled(fixedDelayString = "${app.usernameFilter.refreshIntervalMs:2000}")
+  public synchronized void refresh() {
+    try {
+      Bits current = bits;
+      if (current == null || current.entries.get() > current.capacity) {
+        rebuild(current == null ? 0 : current.entries.get());
+      } else {
+        highestSeenId = Math.max(highestSeenId, scan(current, Math.max(0, highestSeenId - rescanIds)));
+      }
+    } catch (Exception e) {
+      log.warn("Failed to refresh the username filter: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Builds a new filter from a scan of all users and swaps it in.
+   *
+   * @param knownUsers The number of users the previous filter held.
+   */
+  private void rebuild(long knownUsers) {
+    Bits next = new Bits(Math.max(expectedUsers, 2 * knownUsers), falsePositiveRate);
+    long highest = scan(next, 0);
+    bits = next;
+    highestSeenId = highest;
+    log.info("Built username filter with {} users in {} KB", next.entries.get(), next.words.length() / 128);
+  }
+
+  /**
+   * Adds the users created after the given ID to a filter.
+   *
+   * @param target The filter to add to.
+   * @param afterId The ID after which to start.
+   * @return The highest user ID seen, or afterId if there were no users.
+   */
+  private long scan(Bits target, long afterId) {
+    Long highest = readOnlyTransaction.execute(status -> {
+      long max = afterId;
+      try (Stream<UsernameRow> rows = userRepository.streamUsernamesAfter(afterId)) {
+        for (UsernameRow row : (Iterable<UsernameRow>) rows::iterator) {
+          target.put(row.getUsername());
+          max = Math.max(max, row.getId());
+        }
+      }
+      return max;
+    });
+    return highest == null ? afterId : highest;
+  }
+
+  /**
+   * A bloom filter of strings over an atomic bit array, so concurrent additions never lose bits.
+   */
+  private static final class Bits {
+
+    /**
+     * The bit array.
+     */
+    private final AtomicLongArray words;
+
+    /**
+     * The number of bits.
+     */
+    private final long numBits;
+
+    /**
+     * The number of probes per entry.
+     */
+    private final int numHashes;
+
+    /**
+     * The number of entries the filter is sized for.
+     */
+    private final long capacity;
+
+    /**
+     * The number of additions so far that set at least one bit, so rescanned users are not counted again.
+     */
+    private final AtomicLong entries = new AtomicLong();
+
+    /**
+     * Constructor to size the filter with the standard bloom filter formulas.
+     *
+     * @param capacity The number of entries.
+     * @param falsePositiveRate The false-positive rate at that number of entries.
+     */
+    private Bits(long capacity, double falsePositiveRate) {
+      long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+      this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (bits + 63) / 64)));
+      this.numBits = words.length() * 64L;
+      this.numHashes = (int) Math.max(1, Math.round((double) numBits / capacity * Math.log(2)));
+      this.capacity = capacity;
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value The string.
+     */
+    private void put(String value) {
+      long h1 = hash(value);
+      long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+      boolean changed = false;
+      for (int i = 0; i < numHashes; i++) {
+        long bit = Math.floorMod(h1 + i * h2, numBits);
+        long mask = 1L << bit;
+        if ((words.getAndAccumulate((int) (bit >>> 6), mask, OR) & mask) == 0) {
+          changed = true;
+        }
+      }
+      if (changed) {
+        entries.incrementAndGet();
+      }
+    }
+
+    /**
+     * Tests whether a string may have been added.
+     *
+     * @param value The string.
+     * @return False if it was certainly not added, true if it probably was.
+     */
+    private boolean mightContain(String value) {
+      long h1 = hash(value);
+      long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+      for (int i = 0; i < numHashes; i++) {
+        long bit = Math.floorMod(h1 + i * h2, numBits);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Hashes a string to 64 bits with FNV-1a over its characters, followed by a mixing step.
+     *
+     * @param value The string.
+     * @return The hash.
+     */
+    private static long hash(String value) {
+      long hash = 0xCBF29CE484222325L;
+      for (int i = 0; i < value.length(); i++) {
+        hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+      }
+      return mix(hash);
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every input bit over the whole output.
+     *
+     * @param z The input.
+     * @return The mixed value.
+     */
+    private static long mix(long z) {
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+    }
+  }
+}
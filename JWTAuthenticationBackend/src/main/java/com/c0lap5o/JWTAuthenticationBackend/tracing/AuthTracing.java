@@ -0,0 +1,133 @@
+package com.c0lap5o.JWTAuthenticationBackend.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracer for the authentication pipeline, with the span attributes it records.
+ * Spans are created through the OpenTelemetry SDK configured by Spring Boot, so they nest under the HTTP request span
+ * and go to whichever SpanExporter beans are present. Without an OpenTelemetry bean (e.g. with
+ * management.tracing.enabled=false) a no-op tracer is used.
+ */
+@Component
+public class AuthTracing {
+
+  /**
+   * The instrumentation scope name of the spans.
+   */
+  public static final String INSTRUMENTATION_SCOPE = "com.c0lap5o.JWTAuthenticationBackend";
+
+  /**
+   * The outcome of authenticating a request: authenticated, anonymous or rejected.
+   */
+  public static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("auth.outcome");
+
+  /**
+   * Why a request or token was rejected (e.g. expired, malformed, user_not_found).
+   */
+  public static final AttributeKey<String> REJECTION_REASON = AttributeKey.stringKey("auth.rejection_reason");
+
+  /**
+   * Where the principal of an authenticated request came from: database, cache or claims.
+   */
+  public static final AttributeKey<String> PRINCIPAL_SOURCE = AttributeKey.stringKey("auth.principal_source");
+
+  /**
+   * Whether a raw password matched the encoded one.
+   */
+  public static final AttributeKey<Boolean> PASSWORD_MATCHED = AttributeKey.booleanKey("auth.password.matched");
+
+  /**
+   * The interface declaring a traced repository method.
+   */
+  public static final AttributeKey<String> CODE_NAMESPACE = AttributeKey.stringKey("code.namespace");
+
+  /**
+   * The name of a traced repository method.
+   */
+  public static final AttributeKey<String> CODE_FUNCTION = AttributeKey.stringKey("code.function");
+
+  /**
+   * A no-op instance, used until the real one is injected (e.g. in unit tests).
+   */
+  public static final AuthTracing NOOP = new AuthTracing(OpenTelemetry.noop());
+
+  /**
+   * The tracer creating the spans.
+   */
+  private final Tracer tracer;
+
+  /**
+   * Constructor to create the tracer from the OpenTelemetry instance configured by Spring Boot, if any.
+   *
+   * @param openTelemetry Provider of the OpenTelemetry instance.
+   */
+  @Autowired
+  public AuthTracing(ObjectProvider<OpenTelemetry> openTelemetry) {
+    this(openTelemetry.getIfAvailable(OpenTelemetry::noop));
+  }
+
+  /**
+   * Constructor to create the tracer from the given OpenTelemetry instance.
+   *
+   * @param openTelemetry The OpenTelemetry instance.
+   */
+  public AuthTracing(OpenTelemetry openTelemetry) {
+    this.tracer = openTelemetry.getTracer(INSTRUMENTATION_SCOPE);
+  }
+
+  /**
+   * Starts a span as a child of the current one. The caller makes it current and ends it.
+   *
+   * @param name The name of the span.
+   * @return The started span.
+   */
+  public Span startSpan(String name) {
+    return tracer.spanBuilder(name).startSpan();
+  }
+
+  /**
+   * Marks the span as rejected for the given reason. Rejections are expected outcomes, so the status stays unset.
+   *
+   * @param span The span to mark.
+   * @param reason The rejection reason.
+   */
+  public static void reject(Span span, String reason) {
+    span.setAttribute(OUTCOME, "rejected");
+    span.setAttribute(REJECTION_REASON, reason);
+  }
+
+  /**
+   * Records an unexpected error on the span.
+   *
+   * @param span The span to mark.
+   * @param e The error.
+   */
+  public static void error(Span span, Throwable e) {
+    span.recordException(e);
+    span.setStatus(StatusCode.ERROR);
+  }
+
+  /**
+   * Makes an unsampled span context current, so the spans started under it are dropped by the parent-based sampler.
+   * It keeps internal work such as the JIT warm-up out of the traces.
+   *
+   * @return The scope to close when the work is done.
+   */
+  public static Scope unsampled() {
+    IdGenerator ids = IdGenerator.random();
+    return Span.wrap(SpanContext.create(ids.generateTraceId(), ids.generateSpanId(),
+            TraceFlags.getDefault(), TraceState.getDefault())).makeCurrent();
+  }
+}
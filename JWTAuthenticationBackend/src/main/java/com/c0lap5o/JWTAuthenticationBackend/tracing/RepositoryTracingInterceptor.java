@@ -0,0 +1,57 @@
+package com.c0lap5o.JWTAuthenticationBackend.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Interceptor added to repository proxies to record a span for every repository call,
+ * named after the repository interface and method (e.g. "UserRepository.findByUsername").
+ */
+public class RepositoryTracingInterceptor implements MethodInterceptor {
+
+  /**
+   * The tracer for the authentication pipeline.
+   */
+  private final AuthTracing tracing;
+
+  /**
+   * The repository interface of the proxy.
+   */
+  private final Class<?> repositoryInterface;
+
+  /**
+   * Constructor to create the interceptor for one repository.
+   *
+   * @param tracing The tracer for the authentication pipeline.
+   * @param repositoryInterface The repository interface of the proxy.
+   */
+  public RepositoryTracingInterceptor(AuthTracing tracing, Class<?> repositoryInterface) {
+    this.tracing = tracing;
+    this.repositoryInterface = repositoryInterface;
+  }
+
+  /**
+   * Invokes the repository method within a span.
+   *
+   * @param invocation The repository method invocation.
+   * @return The result of the method.
+   * @throws Throwable Any exception thrown by the method.
+   */
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    String method = invocation.getMethod().getName();
+    Span span = tracing.startSpan(repositoryInterface.getSimpleName() + "." + method);
+    span.setAttribute(AuthTracing.CODE_NAMESPACE, repositoryInterface.getName());
+    span.setAttribute(AuthTracing.CODE_FUNCTION, method);
+    try (Scope ignored = span.makeCurrent()) {
+      return invocation.proceed();
+    } catch (Throwable e) {
+      AuthTracing.error(span, e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.c0lap5o.JWTAuthenticationBackend.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Configuration class for tracing the authentication pipeline.
+ * The OpenTelemetry SDK itself is configured by Spring Boot: spans are sampled according to
+ * management.tracing.sampling.probability and handed to every SpanExporter bean, so an exporter is plugged in
+ * by declaring a bean (or adding io.opentelemetry:opentelemetry-exporter-otlp, see the otlp build profile).
+ */
+@Configuration
+public class TracingConfig {
+
+  /**
+   * Bean to add a RepositoryTracingInterceptor to every Spring Data repository.
+   * It hooks into the repository factory beans the same way Spring Boot adds its repository metrics.
+   *
+   * @param tracing Provider of the tracer, resolved when the repositories are created.
+   * @return The BeanPostProcessor customizing the repository factories.
+   */
+  @Bean
+  public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<AuthTracing> tracing) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+          factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                  (proxyFactory, information) -> proxyFactory.addAdvice(
+                          new RepositoryTracingInterceptor(tracing.getObject(), information.getRepositoryInterface()))));
+        }
+        return bean;
+      }
+    };
+  }
+}
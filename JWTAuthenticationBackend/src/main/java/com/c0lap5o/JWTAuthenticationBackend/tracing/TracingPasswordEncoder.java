@@ -0,0 +1,85 @@
+package com.c0lap5o.JWTAuthenticationBackend.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder decorator that records a span for every hash and comparison.
+ * BCrypt is deliberately slow, so these spans show how much of a sign-in or sign-up goes to password hashing.
+ */
+public class TracingPasswordEncoder implements PasswordEncoder {
+
+  /**
+   * The encoder doing the actual work.
+   */
+  private final PasswordEncoder delegate;
+
+  /**
+   * The tracer for the authentication pipeline.
+   */
+  private final AuthTracing tracing;
+
+  /**
+   * Constructor to wrap a password encoder.
+   *
+   * @param delegate The encoder doing the actual work.
+   * @param tracing The tracer for the authentication pipeline.
+   */
+  public TracingPasswordEncoder(PasswordEncoder delegate, AuthTracing tracing) {
+    this.delegate = delegate;
+    this.tracing = tracing;
+  }
+
+  /**
+   * Encodes the raw password within a "password.encode" span.
+   *
+   * @param rawPassword The password to encode.
+   * @return The encoded password.
+   */
+  @Override
+  public String encode(CharSequence rawPassword) {
+    Span span = tracing.startSpan("password.encode");
+    try (Scope ignored = span.makeCurrent()) {
+      return delegate.encode(rawPassword);
+    } catch (RuntimeException e) {
+      AuthTracing.error(span, e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Compares the raw password with the encoded one within a "password.matches" span.
+   *
+   * @param rawPassword The password to check.
+   * @param encodedPassword The stored, encoded password.
+   * @return True if the passwords match, false otherwise.
+   */
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    Span span = tracing.startSpan("password.matches");
+    try (Scope ignored = span.makeCurrent()) {
+      boolean matched = delegate.matches(rawPassword, encodedPassword);
+      span.setAttribute(AuthTracing.PASSWORD_MATCHED, matched);
+      return matched;
+    } catch (RuntimeException e) {
+      AuthTracing.error(span, e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Delegates the upgrade check, which does not hash anything and is not traced.
+   *
+   * @param encodedPassword The stored, encoded password.
+   * @return True if the password should be encoded again.
+   */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+}
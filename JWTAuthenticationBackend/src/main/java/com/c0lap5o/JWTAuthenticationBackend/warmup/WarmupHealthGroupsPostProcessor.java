@@ -0,0 +1,74 @@
+package com.c0lap5o.JWTAuthenticationBackend.warmup;
+
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Post-processor removing the warm-up indicator from the root health group.
+ * Every health indicator is a member of the root group, which the configuration cannot exclude from, so without it
+ * /actuator/health would report a healthy warming instance as OUT_OF_SERVICE. The named groups, e.g. readiness, are
+ * kept as configured.
+ */
+@Component
+public class WarmupHealthGroupsPostProcessor implements HealthEndpointGroupsPostProcessor {
+
+  /**
+   * Replaces the primary group with one that leaves out the warm-up indicator.
+   *
+   * @param groups The configured groups.
+   * @return The groups with the new primary group.
+   */
+  @Override
+  public HealthEndpointGroups postProcessHealthEndpointGroups(HealthEndpointGroups groups) {
+    Map<String, HealthEndpointGroup> named = new LinkedHashMap<>();
+    groups.getNames().forEach(name -> named.put(name, groups.get(name)));
+    return HealthEndpointGroups.of(new WithoutWarmup(groups.getPrimary()), named);
+  }
+
+  /**
+   * A group delegating to another one, except that the warm-up indicator is not a member.
+   *
+   * @param delegate The group delegated to.
+   */
+  private record WithoutWarmup(HealthEndpointGroup delegate) implements HealthEndpointGroup {
+
+    @Override
+    public boolean isMember(String name) {
+      return !WarmupHealthIndicator.NAME.equals(name) && delegate.isMember(name);
+    }
+
+    @Override
+    public boolean showComponents(SecurityContext securityContext) {
+      return delegate.showComponents(securityContext);
+    }
+
+    @Override
+    public boolean showDetails(SecurityContext securityContext) {
+      return delegate.showDetails(securityContext);
+    }
+
+    @Override
+    public StatusAggregator getStatusAggregator() {
+      return delegate.getStatusAggregator();
+    }
+
+    @Override
+    public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+      return delegate.getHttpCodeStatusMapper();
+    }
+
+    @Override
+    public AdditionalHealthEndpointPath getAdditionalPath() {
+      return delegate.getAdditionalPath();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.c0lap5o.JWTAuthenticationBackend.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator reporting OUT_OF_SERVICE until the JIT warm-up has finished.
+ * It is part of the readiness group only, so a warming instance is kept out of rotation but never restarted; the
+ * {@link WarmupHealthGroupsPostProcessor} keeps it out of the root group, which is often used for liveness too.
+ */
+@Component(WarmupHealthIndicator.NAME + "HealthIndicator")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+  /**
+   * The name of the indicator in the health groups.
+   */
+  public static final String NAME = "warmup";
+
+  /**
+   * The runner whose progress is reported.
+   */
+  private final WarmupRunner warmupRunner;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param warmupRunner The runner whose progress is reported.
+   */
+  public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+    this.warmupRunner = warmupRunner;
+  }
+
+  /**
+   * Reports whether the warm-up has finished, with the number of iterations run.
+   *
+   * @return UP once warmed up, OUT_OF_SERVICE before.
+   */
+  @Override
+  public Health health() {
+    Health.Builder builder = warmupRunner.isComplete() ? Health.up() : Health.outOfService();
+    return builder.withDetail("iterations", warmupRunner.getIterations()).build();
+  }
+}
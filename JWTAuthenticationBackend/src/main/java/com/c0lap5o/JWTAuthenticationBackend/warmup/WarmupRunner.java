@@ -0,0 +1,215 @@
+package com.c0lap5o.JWTAuthenticationBackend.warmup;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.LoginRequest;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.JwtResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.opentelemetry.context.Scope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Runner exercising the hot authentication paths right after startup, so the JIT compiles them before real
+ * traffic arrives. It generates and verifies tokens, builds UserDetailsImpl, round-trips the sign-in DTOs through
+ * Jackson, runs the user lookup queries and checks a BCrypt hash, all against synthetic data, for a configurable
+ * duration on a background thread. The "warmup" health indicator keeps the readiness group down until it is done.
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+  /**
+   * Username of the synthetic user; it is never stored, so lookups for it always miss.
+   */
+  private static final String SYNTHETIC_USERNAME = "warmup-synthetic-user";
+
+  /**
+   * Number of token round trips per iteration; they are cheap compared to the BCrypt check done once per iteration.
+   */
+  private static final int TOKENS_PER_ITERATION = 100;
+
+  /**
+   * Utility for generating and verifying JWT tokens.
+   */
+  private final JwtUtils jwtUtils;
+
+  /**
+   * Encoder whose BCrypt path is warmed up.
+   */
+  private final PasswordEncoder passwordEncoder;
+
+  /**
+   * Repository whose lookup queries are warmed up.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Mapper used for request and response bodies.
+   */
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Whether the warm-up runs at all.
+   */
+  private final boolean enabled;
+
+  /**
+   * How long the warm-up runs, in milliseconds.
+   */
+  private final long durationMs;
+
+  /**
+   * Whether the warm-up has finished (or was skipped).
+   */
+  private volatile boolean complete;
+
+  /**
+   * Number of iterations run so far.
+   */
+  private volatile int iterations;
+
+  /**
+   * Constructor to inject dependencies.
+   *
+   * @param jwtUtils Utility for generating and verifying JWT tokens.
+   * @param passwordEncoder Encoder whose BCrypt path is warmed up.
+   * @param userRepository Repository whose lookup queries are warmed up.
+   * @param objectMapper Mapper used for request and response bodies.
+   * @param enabled Whether the warm-up runs at all.
+   * @param durationMs How long the warm-up runs, in milliseconds.
+   */
+  public WarmupRunner(JwtUtils jwtUtils,
+                      PasswordEncoder passwordEncoder,
+                      UserRepository userRepository,
+                      ObjectMapper objectMapper,
+                      @Value("${app.warmup.enabled:true}") boolean enabled,
+                      @Value("${app.warmup.durationMs:5000}") long durationMs) {
+    this.jwtUtils = jwtUtils;
+    this.passwordEncoder = passwordEncoder;
+    this.userRepository = userRepository;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.durationMs = durationMs;
+  }
+
+  /**
+   * Starts the warm-up on a background thread, so the application keeps starting and liveness is not affected.
+   *
+   * @param args The application arguments.
+   */
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled || durationMs <= 0) {
+      complete = true;
+      return;
+    }
+
+    Thread thread = new Thread(this::warmUp, "jit-warmup");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Runs warm-up iterations until the configured duration has elapsed.
+   * A failure ends the warm-up early rather than keeping the instance out of rotation.
+   */
+  private void warmUp() {
+    long start = System.nanoTime();
+    long deadline = start + durationMs * 1_000_000L;
+
+    // Keep the synthetic work out of the traces
+    try (Scope ignored = AuthTracing.unsampled()) {
+      // Prepare the synthetic user and its password hash once
+      User user = User.builder()
+              .id(0L)
+              .username(SYNTHETIC_USERNAME)
+              .email(SYNTHETIC_USERNAME + "@example.invalid")
+              .roles(Set.of(Role.builder().id(0).name(ERole.ROLE_USER).build()))
+              .build();
+      String encodedPassword = passwordEncoder.encode(SYNTHETIC_USERNAME);
+
+      do {
+        iterate(user, encodedPassword);
+        iterations++;
+      } while (System.nanoTime() < deadline);
+
+      log.info("JIT warm-up finished after {} iterations in {} ms", iterations, (System.nanoTime() - start) / 1_000_000);
+    } catch (Exception e) {
+      log.warn("JIT warm-up stopped after {} iterations: {}", iterations, e.getMessage());
+    } finally {
+      complete = true;
+    }
+  }
+
+  /**
+   * Runs one warm-up iteration.
+   *
+   * @param user The synthetic user.
+   * @param encodedPassword The BCrypt hash of the synthetic user's password.
+   * @throws Exception If any warmed-up path fails.
+   */
+  private void iterate(User user, String encodedPassword) throws Exception {
+    for (int i = 0; i < TOKENS_PER_ITERATION; i++) {
+      // Build the principal and issue a token for it, as on sign-in
+      UserDetailsImpl principal = UserDetailsImpl.build(user);
+      String token = jwtUtils.generateJwtToken(
+              new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+      // Verify the token, as the filter and the introspection endpoint do
+      Claims claims = jwtUtils.parseClaims(token);
+      jwtUtils.parseClaimsQuietly(token);
+
+      // Round-trip the sign-in bodies through Jackson
+      objectMapper.readValue(objectMapper.writeValueAsBytes(
+              new LoginRequest(claims.getSubject(), SYNTHETIC_USERNAME)), LoginRequest.class);
+      objectMapper.writeValueAsBytes(JwtResponse.builder()
+              .token(token)
+              .id(principal.getId())
+              .username(principal.getUsername())
+              .email(principal.getEmail())
+              .roles(principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+              .build());
+    }
+
+    // Run the lookup queries once per iteration, they go through the database
+    userRepository.findByUsername(SYNTHETIC_USERNAME);
+    userRepository.existsByUsername(SYNTHETIC_USERNAME);
+    userRepository.existsByEmail(user.getEmail());
+
+    // Check the password once per iteration, BCrypt is slow by design
+    passwordEncoder.matches(SYNTHETIC_USERNAME, encodedPassword);
+  }
+
+  /**
+   * Returns whether the warm-up has finished or was skipped.
+   *
+   * @return True once the instance is warmed up.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Returns the number of iterations run so far.
+   *
+   * @return The number of iterations.
+   */
+  public int getIterations() {
+    return iterations;
+  }
+}
@@ -0,0 +1,157 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.request.BulkRoleChangeRequest;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import com.c0lap5o.JWTAuthenticationBackend.services.AdminUserService;
+import com.c0lap5o.JWTAuthenticationBackend.services.PrincipalCacheInvalidator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the set-based role changes against H2, including the second-level cache regions they invalidate.
+ * Each step commits its own transaction, like the application does, so the second-level cache is really used.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AdminUserService.class, PrincipalCacheInvalidator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkRoleChangeIntegrationTest {
+
+    private static final String USER_ROLES_REGION = User.class.getName() + ".roles";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminUserService adminUserService;
+
+    @MockBean
+    private PrincipalResolver principalResolver;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private Role userRole;
+
+    @BeforeEach
+    public void setUp() {
+        userRole = roleRepository.save(Role.builder().name(ERole.ROLE_USER).build());
+        Role moderator = roleRepository.save(Role.builder().name(ERole.ROLE_MODERATOR).build());
+        roleRepository.save(Role.builder().name(ERole.ROLE_ADMIN).build());
+
+        // Users 0 and 1 are already moderators
+        for (int i = 0; i < 5; i++) {
+            userIds.add(userRepository.save(User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("secret")
+                    .roles(i < 2 ? Set.of(userRole, moderator) : Set.of(userRole))
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void testAssignByIdsCountsOnlyNewGrants() {
+        // When
+        int affected = adminUserService.assignRole(BulkRoleChangeRequest.builder()
+                .role(ERole.ROLE_MODERATOR)
+                .userIds(List.of(userIds.get(0), userIds.get(2), userIds.get(3), -1L))
+                .build()).getAffected();
+
+        // Then
+        assertEquals(2, affected);
+        assertEquals(Set.of("user0", "user1", "user2", "user3"), usersWith(ERole.ROLE_MODERATOR));
+    }
+
+    @Test
+    public void testAssignAndRevokeByRoleFilter() {
+        // When
+        int granted = adminUserService.assignRole(BulkRoleChangeRequest.builder()
+                .role(ERole.ROLE_ADMIN).withRole(ERole.ROLE_MODERATOR).build()).getAffected();
+        int revoked = adminUserService.revokeRole(BulkRoleChangeRequest.builder()
+                .role(ERole.ROLE_USER).withRole(ERole.ROLE_ADMIN).build()).getAffected();
+
+        // Then
+        assertEquals(2, granted);
+        assertEquals(2, revoked);
+        assertEquals(Set.of("user0", "user1"), usersWith(ERole.ROLE_ADMIN));
+        assertEquals(Set.of("user2", "user3", "user4"), usersWith(ERole.ROLE_USER));
+    }
+
+    @Test
+    public void testRevokeEvictsCachedRolesButKeepsOtherRegions() {
+        // Given the roles of user 2 in the second-level cache
+        Long userId = userIds.get(2);
+        assertEquals(1, roleCount(userId));
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.containsCollection(USER_ROLES_REGION, userId));
+
+        // When
+        int affected = adminUserService.revokeRole(BulkRoleChangeRequest.builder()
+                .role(ERole.ROLE_USER).userIds(List.of(userId)).build()).getAffected();
+
+        // Then
+        assertEquals(1, affected);
+        assertFalse(cache.containsCollection(USER_ROLES_REGION, userId));
+        assertTrue(cache.containsEntity(Role.class, userRole.getId()));
+        assertEquals(0, roleCount(userId));
+        verify(principalResolver).invalidateAll();
+    }
+
+    private int roleCount(Long userId) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.findById(userId).orElseThrow().getRoles().size());
+    }
+
+    private Set<String> usersWith(ERole role) {
+        return new TransactionTemplate(transactionManager).execute(status -> userRepository.findAll().stream()
+                .filter(user -> user.getRoles().stream().anyMatch(r -> r.getName() == role))
+                .map(User::getUsername)
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.services.LoginActivityTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the write-behind login tracking against H2: coalesced logins are written as one row update per user, and a
+ * failed flush is retried without counting any login twice.
+ * Each flush commits its own transaction, like the scheduled flush does.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LoginActivityTracker.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LoginActivityTrackerIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LoginActivityTracker loginActivityTracker;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private Long alice;
+
+    private Long bob;
+
+    @BeforeEach
+    public void setUp() {
+        alice = saveUser("alice");
+        bob = saveUser("bob");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void testCoalescesLoginsIntoOneRowUpdate() {
+        // Given
+        Instant before = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            loginActivityTracker.recordLogin(alice);
+        }
+        Instant after = Instant.now();
+
+        // When
+        loginActivityTracker.flush();
+
+        // Then
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((Collection<?> batch) -> batch.size() == 1),
+                eq(1), any());
+        User user = userRepository.findById(alice).orElseThrow();
+        assertEquals(5, user.getLoginCount());
+        // Stored in UTC, so it reads back as the same instant whatever the JVM's time zone
+        assertTrue(!user.getLastLoginAt().isBefore(before.minus(Duration.ofMillis(1)))
+                && !user.getLastLoginAt().isAfter(after.plus(Duration.ofMillis(1))), "Last login: " + user.getLastLoginAt());
+    }
+
+    @Test
+    public void testFailedFlushIsRetriedWithoutDoubleCounting() {
+        // Given a batch whose second row fails after the first one was updated
+        jdbcTemplate.update("UPDATE users SET login_count = ? WHERE id = ?", Long.MAX_VALUE, bob);
+        for (int i = 0; i < 3; i++) {
+            loginActivityTracker.recordLogin(alice);
+        }
+        loginActivityTracker.recordLogin(bob);
+
+        // When
+        loginActivityTracker.flush();
+
+        // Then no row was updated
+        assertEquals(0, loginCount(alice));
+        assertNull(userRepository.findById(alice).orElseThrow().getLastLoginAt());
+
+        // When the failure is gone
+        jdbcTemplate.update("UPDATE users SET login_count = 0 WHERE id = ?", bob);
+        loginActivityTracker.flush();
+
+        // Then each login is counted once
+        assertEquals(3, loginCount(alice));
+        assertEquals(1, loginCount(bob));
+    }
+
+    private long loginCount(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT login_count FROM users WHERE id = ?", Long.class, userId);
+    }
+
+    private Long saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .build()).getId();
+    }
+}
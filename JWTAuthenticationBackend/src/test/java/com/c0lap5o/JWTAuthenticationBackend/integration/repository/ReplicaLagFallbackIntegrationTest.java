@@ -0,0 +1,122 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReadWriteDataSourceConfig;
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReplicaLagFallback;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the user lookup against a primary and a replica, two separate H2 databases.
+ * Hibernate only creates the schema on the primary, so it is copied to the replica; a row inserted into just one
+ * of them shows which database the lookup read from.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:replica-lag-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:replica-lag-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.driver-class-name=org.h2.Driver",
+        "app.datasource.replica.username=sa"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadWriteDataSourceConfig.class, ReplicaLagFallback.class, UserDetailsServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReplicaLagFallbackIntegrationTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        // The replica pool is read-only, so the fixtures are written through a connection of their own
+        replica = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:replica-lag-replica;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (statement.startsWith("CREATE ") && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement.replaceFirst("^CREATE (\\w+ )*?(TABLE|SEQUENCE|INDEX) ",
+                        "$0IF NOT EXISTS "));
+            }
+        }
+        for (JdbcTemplate database : new JdbcTemplate[] {primary, replica}) {
+            database.update("INSERT INTO roles (id, name) VALUES (1, 'ROLE_USER')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (JdbcTemplate database : new JdbcTemplate[] {primary, replica}) {
+            database.update("DELETE FROM user_roles");
+            database.update("DELETE FROM users");
+            database.update("DELETE FROM roles");
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void testReadsFromReplica() {
+        // Given a user only the replica has
+        insertUser(replica, 1L, "alice");
+
+        // When
+        UserDetailsImpl alice = (UserDetailsImpl) userDetailsService.loadUserByUsername("alice");
+
+        // Then
+        assertEquals(1L, alice.getId());
+        assertEquals("ROLE_USER", alice.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    public void testFallsBackToPrimaryForUserMissingOnReplica() {
+        // Given a user who just signed up, and has not been replicated yet
+        insertUser(primary, 2L, "bob");
+
+        // When
+        UserDetailsImpl bob = (UserDetailsImpl) userDetailsService.loadUserByUsername("bob");
+
+        // Then
+        assertEquals(2L, bob.getId());
+        assertEquals("ROLE_USER", bob.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    public void testUnknownUserIsRejected() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("carol"));
+    }
+
+    private static void insertUser(JdbcTemplate database, long id, String username) {
+        database.update("INSERT INTO users (id, username, email, password, username_normalized, email_normalized,"
+                + " login_count) VALUES (?, ?, ?, 'secret', ?, ?, 0)",
+                id, username, username + "@example.com", username, username + "@example.com");
+        database.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, 1)", id);
+    }
+}
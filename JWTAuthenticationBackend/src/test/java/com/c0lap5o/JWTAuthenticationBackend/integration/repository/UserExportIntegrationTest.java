@@ -0,0 +1,115 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserExportFormat;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the streamed user export against H2, flushing and clearing the persistence context every 3 users so the
+ * clears fall in the middle of the stream.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "app.export.flushEvery=3"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(UserExportService.class)
+public class UserExportIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        Role user = roleRepository.save(Role.builder().name(ERole.ROLE_USER).build());
+        Role moderator = roleRepository.save(Role.builder().name(ERole.ROLE_MODERATOR).build());
+
+        // Even users are also moderators, and user 5 has no role at all
+        for (int i = 0; i < 10; i++) {
+            Set<Role> roles = new HashSet<>();
+            if (i != 5) {
+                roles.add(user);
+            }
+            if (i % 2 == 0) {
+                roles.add(moderator);
+            }
+            userRepository.save(User.builder()
+                    .username("user" + i)
+                    .email(i == 7 ? "\"odd,one\"@example.com" : "user" + i + "@example.com")
+                    .password("secret")
+                    .roles(roles)
+                    .build());
+        }
+
+        // Make the export read from the database rather than the persistence context
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void testNdjsonHasOneLinePerUserWithAllRoles() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userExportService.export(UserExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(10, count);
+        assertEquals(10, lines.length);
+        for (int i = 0; i < 10; i++) {
+            JsonNode user = objectMapper.readTree(lines[i]);
+            assertEquals("user" + i, user.get("username").asText());
+            int expectedRoles = (i != 5 ? 1 : 0) + (i % 2 == 0 ? 1 : 0);
+            assertEquals(expectedRoles, user.get("roles").size(), lines[i]);
+        }
+    }
+
+    @Test
+    public void testCsvEscapesFields() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.export(UserExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(11, lines.length);
+        assertEquals("id,username,email,roles,last_login_at,login_count", lines[0]);
+        assertEquals(",user0,user0@example.com,ROLE_MODERATOR;ROLE_USER,,0", lines[1].substring(lines[1].indexOf(',')));
+        assertEquals(",user5,user5@example.com,,,0", lines[6].substring(lines[6].indexOf(',')));
+        assertEquals(",user7,\"\"\"odd,one\"\"@example.com\",ROLE_USER,,0", lines[8].substring(lines[8].indexOf(',')));
+    }
+}
@@ -0,0 +1,115 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.AdminUserResponse;
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.UserPageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.services.AdminUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the keyset pages of the admin user listing against H2.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AdminUserService.class)
+public class UserKeysetPageIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AdminUserService adminUserService;
+
+    @BeforeEach
+    public void setUp() {
+        Role user = roleRepository.save(Role.builder().name(ERole.ROLE_USER).build());
+        Role admin = roleRepository.save(Role.builder().name(ERole.ROLE_ADMIN).build());
+
+        // Every third user is also an admin, and user 4 has no role at all
+        for (int i = 0; i < 10; i++) {
+            Set<Role> roles = new HashSet<>();
+            if (i != 4) {
+                roles.add(user);
+            }
+            if (i % 3 == 0) {
+                roles.add(admin);
+            }
+            userRepository.save(User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("secret")
+                    .roles(roles)
+                    .build());
+        }
+        userRepository.flush();
+    }
+
+    @Test
+    public void testPagesCoverAllUsersOnceWithTheirRoles() {
+        // When
+        List<AdminUserResponse> users = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long cursor = null;
+        do {
+            UserPageResponse page = adminUserService.listUsers(cursor, null, 4);
+            users.addAll(page.getUsers());
+            pageSizes.add(page.getUsers().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(List.of(4, 4, 2), pageSizes);
+        assertEquals(10, users.size());
+        for (int i = 0; i < 10; i++) {
+            AdminUserResponse user = users.get(i);
+            assertEquals("user" + i, user.getUsername());
+            int expectedRoles = (i != 4 ? 1 : 0) + (i % 3 == 0 ? 1 : 0);
+            assertEquals(expectedRoles, user.getRoles().size(), user.toString());
+        }
+    }
+
+    @Test
+    public void testRoleFilterKeepsAllRolesOfMatchingUsers() {
+        // When
+        UserPageResponse page = adminUserService.listUsers(null, ERole.ROLE_ADMIN, 10);
+
+        // Then
+        assertNull(page.getNextCursor());
+        assertEquals(List.of("user0", "user3", "user6", "user9"),
+                page.getUsers().stream().map(AdminUserResponse::getUsername).toList());
+        page.getUsers().forEach(user -> assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), new HashSet<>(user.getRoles())));
+    }
+
+    @Test
+    public void testExactFinalPageHasNoCursor() {
+        // When
+        UserPageResponse first = adminUserService.listUsers(null, null, 5);
+        UserPageResponse second = adminUserService.listUsers(first.getNextCursor(), null, 5);
+
+        // Then
+        assertEquals(5, second.getUsers().size());
+        assertNull(second.getNextCursor());
+    }
+}
@@ -0,0 +1,137 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the H2 query plans of the hot user lookups against the schema generated from the entity mappings.
+ * It runs on the "test" profile, whose create-drop schema is generated from the entities alone. The lookups are
+ * explained as Hibernate generates them, captured by a statement inspector, so a change to a query method or its
+ * mapping cannot silently fall back to a table scan.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.c0lap5o.JWTAuthenticationBackend.integration.repository.UserRepositoryQueryPlanIntegrationTest$CapturingStatementInspector"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserRepositoryQueryPlanIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLookupsIgnoreCase() {
+        // Given
+        Role userRole = roleRepository.saveAndFlush(Role.builder().name(ERole.ROLE_USER).build());
+        userRepository.saveAndFlush(User.builder()
+                .username("Alice")
+                .email("Alice@Example.com")
+                .password("secret")
+                .roles(Set.of(userRole))
+                .build());
+
+        // When / Then
+        assertTrue(userRepository.existsByUsername("ALICE"));
+        assertTrue(userRepository.existsByEmail("alice@example.COM"));
+        assertEquals("Alice", userRepository.findByUsername("alice").orElseThrow().getUsername());
+        assertFalse(userRepository.existsByUsername("bob"));
+    }
+
+    @Test
+    public void testFindByUsernameSeeksUniqueIndex() {
+        String plan = explain(capture(() -> userRepository.findByUsername("find-plan")), "find-plan");
+
+        assertTrue(plan.contains("UX_USERS_USERNAME_NORMALIZED"), plan);
+        assertFalse(plan.contains("USERS.tableScan"), plan);
+    }
+
+    @Test
+    public void testExistsByUsernameSeeksUniqueIndex() {
+        String plan = explain(capture(() -> userRepository.existsByUsername("exists-plan")), "exists-plan");
+
+        assertTrue(plan.contains("UX_USERS_USERNAME_NORMALIZED"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    public void testExistsByEmailSeeksUniqueIndex() {
+        String plan = explain(capture(() -> userRepository.existsByEmail("plan@example.com")), "plan@example.com");
+
+        assertTrue(plan.contains("UX_USERS_EMAIL_NORMALIZED"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    public void testRoleLoadSeeksUserRolesIndex() {
+        // Given a user whose roles are not loaded yet, inserted behind Hibernate's back like by an earlier
+        // transaction, since read-only cached roles cannot be loaded in the transaction that inserted them
+        long userId = 9001;
+        jdbcTemplate.update("INSERT INTO roles (id, name) VALUES (9001, 'ROLE_USER')");
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, username_normalized, email_normalized,"
+                + " login_count) VALUES (?, 'roles-plan', 'roles-plan@example.com', 'secret', 'roles-plan',"
+                + " 'roles-plan@example.com', 0)", userId);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, 9001)", userId);
+        User user = userRepository.findById(userId).orElseThrow();
+
+        // When
+        String plan = explain(capture(() -> user.getRoles().size()), userId);
+
+        // Then
+        assertFalse(plan.contains("USER_ROLES.tableScan"), plan);
+        assertTrue(plan.contains("USER_ID = ?1"), plan);
+    }
+
+    private String explain(String sql, Object parameter) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameter);
+    }
+
+    /**
+     * Runs a lookup and returns the single statement Hibernate generated for it, with any row limit inlined so
+     * the lookup value is its only parameter.
+     */
+    private static String capture(Runnable lookup) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        lookup.run();
+        List<String> statements = List.copyOf(CapturingStatementInspector.STATEMENTS);
+        assertEquals(1, statements.size(), statements.toString());
+        return statements.get(0).replaceAll("(fetch first|limit) \\?", "$1 1");
+    }
+
+    /**
+     * Records the SQL of every statement the session factory prepares.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.repository;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.services.UsernameExistenceFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the username filter against H2, building it from a scan and then picking up users created afterwards, as
+ * if on another instance.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "app.usernameFilter.expectedUsers=1000"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UsernameExistenceFilter.class)
+public class UsernameExistenceFilterIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UsernameExistenceFilter usernameExistenceFilter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testScansExistingAndLaterUsers() {
+        // Given
+        IntStream.range(0, 200).forEach(this::saveUser);
+        testEntityManager.flush();
+
+        // When
+        usernameExistenceFilter.refresh();
+
+        // Then
+        assertTrue(usernameExistenceFilter.isReady());
+        assertTrue(IntStream.range(0, 200).allMatch(i -> usernameExistenceFilter.mightExist("User" + i)));
+        long falsePositives = IntStream.range(0, 1000).filter(i -> usernameExistenceFilter.mightExist("other" + i)).count();
+        assertTrue(falsePositives < 50, "False positives: " + falsePositives); // Target rate is 1%
+
+        // When
+        saveUser(1000);
+        testEntityManager.flush();
+        usernameExistenceFilter.refresh();
+
+        // Then
+        assertTrue(usernameExistenceFilter.mightExist("user1000"));
+    }
+
+    @Test
+    public void testRescansInsertsBelowHighestSeenId() {
+        // Given a gap below the highest ID, as left by an insert that had not committed yet
+        User late = saveUser(2001);
+        saveUser(2002);
+        userRepository.delete(late);
+        testEntityManager.flush();
+        usernameExistenceFilter.refresh();
+        assertFalse(usernameExistenceFilter.mightExist("user2001"));
+
+        // When the insert commits
+        testEntityManager.getEntityManager().createNativeQuery(
+                        "INSERT INTO users (id, username, email, password, username_normalized, email_normalized, login_count) "
+                                + "VALUES (?1, 'user2001', 'user2001@example.com', 'secret', 'user2001', 'user2001@example.com', 0)")
+                .setParameter(1, late.getId())
+                .executeUpdate();
+        usernameExistenceFilter.refresh();
+
+        // Then
+        assertTrue(usernameExistenceFilter.mightExist("user2001"));
+    }
+
+    @Test
+    public void testUsersFromOtherInstancesAreMissingUntilNextRefresh() {
+        // Given a user created after the last scan, as if on another instance
+        usernameExistenceFilter.refresh();
+        saveUser(3001);
+        testEntityManager.flush();
+
+        // When / Then the negative answer is stale until the next refresh
+        assertFalse(usernameExistenceFilter.mightExist("user3001"));
+        usernameExistenceFilter.refresh();
+        assertTrue(usernameExistenceFilter.mightExist("USER3001"));
+    }
+
+    @Test
+    public void testEveryUsernameMightExistUntilFirstScan() {
+        // Given a filter that has not scanned yet
+        UsernameExistenceFilter warmingUp = new UsernameExistenceFilter(userRepository, transactionManager, 1000, 0.01, 1000);
+
+        // When / Then
+        assertFalse(warmingUp.isReady());
+        assertTrue(warmingUp.mightExist("unknown"));
+    }
+
+    private User saveUser(int i) {
+        return userRepository.save(User.builder()
+                .username("user" + i)
+                .email("user" + i + "@example.com")
+                .password("secret")
+                .build());
+    }
+}
@@ -0,0 +1,97 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that health stays public while the other actuator endpoints are only open to admins.
+ * The test resources shadow application.yml, so the endpoints are exposed as in the main configuration here.
+ */
+@SpringBootTest(properties = {"spring.sql.init.mode=never", "app.warmup.enabled=false",
+        "management.endpoints.web.exposure.include=health,metrics,startup",
+        "management.endpoint.health.probes.enabled=true"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ActuatorSecurityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    public void testHealthIsPublic() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testMetricsRequireAuthentication() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testUserIsForbiddenFromMetrics() throws Exception {
+        // Given
+        String token = token("act-user", ERole.ROLE_USER);
+
+        // When / Then
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testAdminIsAllowedOnMetrics() throws Exception {
+        // Given
+        String token = token("act-admin", ERole.ROLE_ADMIN);
+
+        // When / Then
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String token(String username, ERole role) {
+        // Make sure the user exists, so the request is authenticated from the database
+        if (!userRepository.existsByUsername(username)) {
+            Role granted = roleRepository.findByName(role)
+                    .orElseGet(() -> roleRepository.save(Role.builder().name(role).build()));
+            userRepository.save(User.builder()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password("secret")
+                    .roles(Set.of(granted))
+                    .build());
+        }
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(null, username, List.of(role.name()));
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that @RequiresRole is enforced on a real endpoint through the whole application context, i.e. that the
+ * role check is actually applied to the controller by the auto-proxy creator.
+ */
+@SpringBootTest(properties = {"spring.sql.init.mode=never", "app.warmup.enabled=false"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class RequiresRoleIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    public void testUserIsForbiddenFromAdminEndpoint() throws Exception {
+        // Given
+        String token = token("rr-user", ERole.ROLE_USER);
+
+        // When / Then
+        mockMvc.perform(get("/api/admin/users").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testAdminIsAllowedOnAdminEndpoint() throws Exception {
+        // Given
+        String token = token("rr-admin", ERole.ROLE_ADMIN);
+
+        // When / Then
+        mockMvc.perform(get("/api/admin/users").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String token(String username, ERole role) {
+        // Make sure the user exists, so the request is authenticated from the database
+        if (!userRepository.existsByUsername(username)) {
+            Role granted = roleRepository.findByName(role)
+                    .orElseGet(() -> roleRepository.save(Role.builder().name(role).build()));
+            userRepository.save(User.builder()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password("secret")
+                    .roles(Set.of(granted))
+                    .build());
+        }
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(null, username, List.of(role.name()));
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.RoleRepository;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.TokenVerifyFilter;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that batch introspection is only open to authenticated callers with ROLE_GATEWAY, and verification only to
+ * the proxy, although both live under the otherwise public /api/auth.
+ */
+@SpringBootTest(properties = {"spring.sql.init.mode=never", "app.warmup.enabled=false",
+        "app.verify.proxySecret=proxy-secret"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class TokenIntrospectionSecurityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    public void testAnonymousCallerIsUnauthorized() throws Exception {
+        // When / Then
+        mockMvc.perform(introspect(token("ti-user", ERole.ROLE_USER)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testUserIsForbidden() throws Exception {
+        // Given
+        String token = token("ti-user", ERole.ROLE_USER);
+
+        // When / Then
+        mockMvc.perform(introspect(token).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testGatewayCanIntrospect() throws Exception {
+        // Given
+        String gatewayToken = token("ti-gateway", ERole.ROLE_GATEWAY);
+
+        // When / Then
+        mockMvc.perform(introspect(token("ti-user", ERole.ROLE_USER)).header("Authorization", "Bearer " + gatewayToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(true))
+                .andExpect(jsonPath("$.results[0].sub").value("ti-user"))
+                .andExpect(jsonPath("$.results[1].active").value(false));
+    }
+
+    @Test
+    public void testAnonymousVerifyIsForbidden() throws Exception {
+        // Given
+        String token = token("ti-user", ERole.ROLE_USER);
+
+        // When / Then
+        mockMvc.perform(get(TokenVerifyFilter.PATH).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(TokenVerifyFilter.PATH).header("Authorization", "Bearer " + token)
+                        .header(TokenVerifyFilter.SECRET_HEADER, "proxy-secret"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(TokenVerifyFilter.SUBJECT_HEADER, "ti-user"));
+    }
+
+    private MockHttpServletRequestBuilder introspect(String token) {
+        return post("/api/auth/introspect/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[\"" + token + "\",\"not-a-token\"]}");
+    }
+
+    private String token(String username, ERole role) {
+        // Make sure the user exists, so the request is authenticated from the database
+        if (!userRepository.existsByUsername(username)) {
+            Role granted = roleRepository.findByName(role)
+                    .orElseGet(() -> roleRepository.save(Role.builder().name(role).build()));
+            userRepository.save(User.builder()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password("secret")
+                    .roles(Set.of(granted))
+                    .build());
+        }
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(null, username, List.of(role.name()));
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.c0lap5o.JWTAuthenticationBackend.integration.warmup;
+
+import com.c0lap5o.JWTAuthenticationBackend.warmup.WarmupRunner;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that a warming instance is only held back by the readiness probe, while the root health stays UP.
+ * The test resources shadow application.yml, so the health groups are configured as in the main configuration here.
+ */
+@SpringBootTest(properties = {"spring.sql.init.mode=never",
+        "management.endpoints.web.exposure.include=health",
+        "management.endpoint.health.probes.enabled=true",
+        "management.endpoint.health.group.readiness.include=readinessState,warmup"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class WarmupHealthIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private WarmupRunner warmupRunner;
+
+    @Test
+    public void testOnlyReadinessWaitsForWarmup() throws Exception {
+        // Given a warm-up that has not finished, as the mock never completes
+
+        // When / Then
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.aot;
+
+import com.c0lap5o.JWTAuthenticationBackend.aot.NativeRuntimeHints;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NativeRuntimeHintsUnitTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    public void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testSwaggerUiAssetsInVersionedDirectoryAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.10.3/index.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.10.3/swagger-ui-bundle.js").test(hints));
+    }
+
+    @Test
+    public void testResourcesLoadedByNameAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    public void testEntitiesAreReflectivelyAccessible() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(User.class).test(hints));
+    }
+}
@@ -0,0 +1,98 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.audit;
+
+import com.c0lap5o.JWTAuthenticationBackend.audit.AuthEventRingBuffer;
+import com.c0lap5o.JWTAuthenticationBackend.model.AuthEvent;
+import com.c0lap5o.JWTAuthenticationBackend.model.EAuthEventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuthEventRingBufferUnitTest {
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new AuthEventRingBuffer(1).capacity());
+        assertEquals(8, new AuthEventRingBuffer(8).capacity());
+        assertEquals(16, new AuthEventRingBuffer(9).capacity());
+    }
+
+    @Test
+    public void testOverflowDropsNewEvents() {
+        // Given
+        AuthEventRingBuffer buffer = new AuthEventRingBuffer(4);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event("user" + i)));
+        }
+        boolean accepted = buffer.offer(event("overflow"));
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1, buffer.takeDroppedCount());
+        assertEquals(0, buffer.takeDroppedCount());
+
+        List<AuthEvent> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals("user0", drained.get(0).getUsername());
+        assertEquals("user3", drained.get(3).getUsername());
+
+        // The freed slots can be reused
+        assertTrue(buffer.offer(event("again")));
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothing() throws Exception {
+        // Given
+        int producers = 4;
+        int eventsPerProducer = 50_000;
+        AuthEventRingBuffer buffer = new AuthEventRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    // Spin while the buffer is full so every event eventually gets in
+                    while (!buffer.offer(event(producer + ":" + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<AuthEvent> batch = new ArrayList<>();
+        while (seen.size() < producers * eventsPerProducer) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            batch.forEach(event -> assertTrue(seen.add(event.getUsername()), "Duplicate " + event.getUsername()));
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, buffer.drainTo(batch, 1));
+    }
+
+    private static AuthEvent event(String username) {
+        return AuthEvent.builder()
+                .eventType(EAuthEventType.SIGNIN)
+                .username(username)
+                .build();
+    }
+}
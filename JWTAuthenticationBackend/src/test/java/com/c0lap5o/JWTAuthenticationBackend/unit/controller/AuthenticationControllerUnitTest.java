@@ -1,5 +1,6 @@
 package com.c0lap5o.JWTAuthenticationBackend.unit.controller;
 
+import com.c0lap5o.JWTAuthenticationBackend.audit.AuthAuditTrail;
 import com.c0lap5o.JWTAuthenticationBackend.controller.AuthController;
 import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
 import com.c0lap5o.JWTAuthenticationBackend.model.Role;
@@ -9,6 +10,10 @@ import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
 import com.c0lap5o.JWTAuthenticationBackend.dto.request.LoginRequest;
 import com.c0lap5o.JWTAuthenticationBackend.dto.request.SignupRequest;
 import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.password.BreachedPasswordChecker;
+import com.c0lap5o.JWTAuthenticationBackend.services.IdempotentResponseStore;
+import com.c0lap5o.JWTAuthenticationBackend.services.LoginActivityTracker;
+import com.c0lap5o.JWTAuthenticationBackend.services.UsernameExistenceFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +30,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -50,6 +56,21 @@ public class AuthenticationControllerUnitTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private AuthAuditTrail authAuditTrail;
+
+    @Mock
+    private LoginActivityTracker loginActivityTracker;
+
+    @Mock
+    private BreachedPasswordChecker breachedPasswordChecker;
+
+    @Mock
+    private UsernameExistenceFilter usernameExistenceFilter;
+
+    @Mock
+    private IdempotentResponseStore idempotentResponseStore;
+
     @InjectMocks
     private AuthController authController;
 
@@ -58,6 +79,9 @@ public class AuthenticationControllerUnitTest {
     @BeforeEach
     public void setupMockMvc() {
         mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+        lenient().when(usernameExistenceFilter.mightExist(any())).thenReturn(true);
+        lenient().when(idempotentResponseStore.execute(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
         // Mocking Role Repository Behaviour
         Role userRole = Role.builder()
@@ -0,0 +1,81 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.datasource;
+
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReadWriteRoutingDataSource;
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReplicaLagFallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReadWriteRoutingDataSourceUnitTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setupDataSources() {
+        // Two H2 instances stand in for the primary and the replica
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    public void testReadOnlyTransactionGoesToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void testReadWriteTransactionGoesToPrimary() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void testNonTransactionalWorkGoesToPrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    public void testReplicaMissIsRetriedOnPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ReplicaLagFallback fallback = new ReplicaLagFallback(transactionManager, "jdbc:h2:mem:replica");
+
+        // Simulate a user that was just written to the primary but has not reached the replica yet
+        String node = readOnly.execute(status -> Optional.<String>empty()
+                .or(() -> fallback.retryOnPrimary(() -> Optional.of(currentNode())))
+                .orElseThrow());
+
+        assertEquals("primary", node);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,97 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AuthTokenFilterUnitTest {
+
+    private final UserDetailsImpl principal = UserDetailsImpl.build(User.builder()
+            .id(1L).username("alice").email("alice@example.com").password("secret")
+            .roles(Set.of(Role.builder().id(1).name(ERole.ROLE_USER).build()))
+            .build());
+
+    private final PrincipalResolver principalResolver = mock(PrincipalResolver.class);
+
+    private final JwtUtils jwtUtils = jwtUtils();
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testTokenNearExpiryIsRenewedInResponseHeader() throws Exception {
+        // Given a token that is due for renewal and a user loaded from the database
+        when(principalResolver.resolve(any())).thenReturn(new PrincipalResolver.Resolved(principal, true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter().doFilter(request(token()), response, new MockFilterChain());
+
+        // Then
+        String renewed = response.getHeader(AuthTokenFilter.RENEWED_TOKEN_HEADER);
+        assertNotNull(renewed);
+        assertEquals("alice", jwtUtils.parseClaims(renewed).getSubject());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void testTokenIsNotRenewedForFallbackPrincipal() throws Exception {
+        // Given a user resolved from the last-known-good cache while the database is down
+        when(principalResolver.resolve(any())).thenReturn(new PrincipalResolver.Resolved(principal.withoutPassword(), false));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter().doFilter(request(token()), response, new MockFilterChain());
+
+        // Then the request is still authenticated, but the session is not extended
+        assertNull(response.getHeader(AuthTokenFilter.RENEWED_TOKEN_HEADER));
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private AuthTokenFilter filter() {
+        AuthTokenFilter filter = new AuthTokenFilter(new AntPathRequestMatcher("/api/auth/**"));
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "principalResolver", principalResolver);
+        return filter;
+    }
+
+    private JwtUtils jwtUtils() {
+        // The renewal window is longer than the token lifetime, so every token is due
+        return TestJwtUtils.builder().renewal(120000, 3600000).build();
+    }
+
+    private String token() {
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/user");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
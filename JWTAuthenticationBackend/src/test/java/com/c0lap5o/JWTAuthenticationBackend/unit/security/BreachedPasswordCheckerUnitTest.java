@@ -0,0 +1,79 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.security.password.BreachedPasswordChecker;
+import com.c0lap5o.JWTAuthenticationBackend.security.password.BreachedPasswordFilterCompiler;
+import com.c0lap5o.JWTAuthenticationBackend.security.password.PasswordBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BreachedPasswordCheckerUnitTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testCompiledHashListRejectsEveryListedPassword() throws Exception {
+        // Given
+        List<String> lines = new ArrayList<>();
+        IntStream.range(0, 10000).forEach(i -> lines.add(sha1Hex("leaked-" + i) + ":" + (i + 1)));
+        lines.add(sha1Hex("password123").toLowerCase());
+        Files.write(dir.resolve("pwned.txt"), lines);
+
+        // When
+        PasswordBloomFilter filter = BreachedPasswordFilterCompiler.compile(dir.resolve("pwned.txt"),
+                dir.resolve("breached.bloom"), 0.01, Long.MAX_VALUE, false);
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(dir.resolve("breached.bloom").toString());
+
+        // Then
+        assertEquals(10001, filter.entries());
+        assertTrue(checker.isBreached("password123"));
+        assertTrue(IntStream.range(0, 10000).allMatch(i -> checker.isBreached("leaked-" + i))); // No false negatives
+        long falsePositives = IntStream.range(0, 10000).filter(i -> checker.isBreached("safe-" + i)).count();
+        assertTrue(falsePositives < 200, "False positives: " + falsePositives); // Target rate is 1%
+    }
+
+    @Test
+    public void testMaxBytesBoundsTheFootprint() throws Exception {
+        // Given
+        Files.write(dir.resolve("plain.txt"), IntStream.range(0, 5000).mapToObj(i -> "leaked-" + i).toList());
+
+        // When
+        PasswordBloomFilter filter = BreachedPasswordFilterCompiler.compile(dir.resolve("plain.txt"),
+                dir.resolve("small.bloom"), 0.0001, 1024, true);
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(dir.resolve("small.bloom").toString());
+
+        // Then
+        assertEquals(1024 * 8, filter.numBits());
+        assertEquals(PasswordBloomFilter.HEADER_BYTES + 1024, Files.size(dir.resolve("small.bloom")));
+        assertTrue(checker.isBreached("leaked-42"));
+    }
+
+    @Test
+    public void testDisabledWithoutFileAndFailsOnInvalidFile() throws Exception {
+        // Given
+        Files.writeString(dir.resolve("invalid.bloom"), "not a filter, just some text");
+
+        // When / Then
+        assertFalse(new BreachedPasswordChecker("").isBreached("password123"));
+        assertThrows(IllegalStateException.class,
+                () -> new BreachedPasswordChecker(dir.resolve("invalid.bloom").toString()));
+        assertThrows(IllegalStateException.class,
+                () -> new BreachedPasswordChecker(dir.resolve("missing.bloom").toString()));
+    }
+
+    private static String sha1Hex(String password) {
+        return HexFormat.of().withUpperCase().formatHex(PasswordBloomFilter.sha1(password));
+    }
+}
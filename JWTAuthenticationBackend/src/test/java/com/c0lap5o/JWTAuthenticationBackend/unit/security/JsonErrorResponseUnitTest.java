@@ -0,0 +1,59 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AccessDeniedHandlerJwt;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthEntryPointJwt;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonErrorResponseUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testUnauthorizedBodyIsValidJson() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/user");
+        request.setServletPath("/api/test/user");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        new AuthEntryPointJwt().commence(request, response, new BadCredentialsException("Bad \"credentials\"\né"));
+
+        // Then
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(401, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertEquals(401, body.get("status").asInt());
+        assertEquals("Unauthorized", body.get("error").asText());
+        assertEquals("Bad \"credentials\"\né", body.get("message").asText());
+        assertEquals("/api/test/user", body.get("path").asText());
+    }
+
+    @Test
+    public void testForbiddenBodyWithNullMessage() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/admin");
+        request.setServletPath("/api/test/admin");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        new AccessDeniedHandlerJwt().handle(request, response, new AccessDeniedException(null));
+
+        // Then
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(403, response.getStatus());
+        assertEquals("Forbidden", body.get("error").asText());
+        assertTrue(body.get("message").isNull());
+        assertEquals("/api/test/admin", body.get("path").asText());
+    }
+}
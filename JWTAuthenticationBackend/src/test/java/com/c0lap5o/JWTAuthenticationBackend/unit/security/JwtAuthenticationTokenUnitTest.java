@@ -0,0 +1,190 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleMask;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtAuthenticationToken;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class JwtAuthenticationTokenUnitTest {
+
+    private User user;
+
+    private JwtUtils jwtUtils;
+
+    private PrincipalResolver principalResolver;
+
+    private AuthTokenFilter filter;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = TestJwtUtils.builder().expirationMs(600000).build();
+
+        user = User.builder().id(1L).username("alice").email("alice@example.com").password("secret")
+                .roles(Set.of(Role.builder().id(1).name(ERole.ROLE_USER).build(),
+                        Role.builder().id(3).name(ERole.ROLE_ADMIN).build()))
+                .build();
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        String jwt = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return UserDetailsImpl.build(user);
+            }
+        };
+        principalResolver = new PrincipalResolver(userDetailsService, 50, 500, 20, 10000, 100, 60000);
+        filter = new AuthTokenFilter(new AntPathRequestMatcher("/api/auth/**"));
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "principalResolver", principalResolver);
+
+        request = new MockHttpServletRequest("GET", "/api/admin/users");
+        request.setRemoteAddr("10.0.0.7");
+        request.addHeader("Authorization", "Bearer " + jwt);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testFilterSetsJwtAuthenticationWithClaims() throws Exception {
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        JwtAuthenticationToken token = assertInstanceOf(JwtAuthenticationToken.class, authentication);
+        assertTrue(token.isAuthenticated());
+        assertEquals("alice", token.getName());
+        assertEquals("alice", token.getClaims().getSubject());
+        assertNull(token.getCredentials());
+        assertSame(RoleMask.authorities(ERole.ROLE_USER.mask() | ERole.ROLE_ADMIN.mask()), token.getAuthorities());
+    }
+
+    @Test
+    public void testAuthoritiesAreCanonical() {
+        // When
+        UserDetailsImpl first = UserDetailsImpl.build(user);
+        UserDetailsImpl second = UserDetailsImpl.build(user);
+
+        // Then
+        assertSame(first.getAuthorities(), second.getAuthorities());
+        Iterator<? extends GrantedAuthority> authorities = first.getAuthorities().iterator();
+        assertSame(RoleMask.authority(ERole.ROLE_USER), authorities.next());
+        assertSame(RoleMask.authority(ERole.ROLE_ADMIN), authorities.next());
+        assertEquals("ROLE_USER", RoleMask.authorities(ERole.ROLE_USER.mask()).get(0).getAuthority());
+    }
+
+    @Test
+    public void testDetailsAreBuiltLazilyOnce() {
+        // Given
+        JwtAuthenticationToken token = new JwtAuthenticationToken(UserDetailsImpl.build(user), null, "10.0.0.7");
+
+        // When
+        Object details = token.getDetails();
+
+        // Then
+        assertEquals("10.0.0.7", assertInstanceOf(WebAuthenticationDetails.class, details).getRemoteAddress());
+        assertNull(((WebAuthenticationDetails) details).getSessionId());
+        assertSame(details, token.getDetails());
+    }
+
+    @Test
+    public void testTokenIsImmutable() {
+        // Given
+        JwtAuthenticationToken token = new JwtAuthenticationToken(UserDetailsImpl.build(user), null, "10.0.0.7");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> token.setAuthenticated(false));
+        token.setAuthenticated(true);
+        assertTrue(token.isAuthenticated());
+    }
+
+    @Test
+    public void testJwtAuthenticationAllocatesLessThanUsernamePasswordToken() {
+        // Given a resolved principal and claims, the same for both paths
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+        UserDetails principal = UserDetailsImpl.build(user);
+        Claims claims = jwtUtils.parseClaims(request.getHeader("Authorization").substring(7));
+        int requests = 20000;
+        authenticateWithJwtToken(principal, claims, requests);
+        authenticateWithUsernamePasswordToken(principal, requests);
+
+        // When both run on the same JVM, so the comparison does not depend on its allocation profile
+        long before = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        authenticateWithJwtToken(principal, claims, requests);
+        long jwtPath = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        before = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        authenticateWithUsernamePasswordToken(principal, requests);
+        long usernamePasswordPath = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        // Then
+        assertTrue(jwtPath * 2 < usernamePasswordPath, "Allocated " + jwtPath / requests
+                + " bytes per authentication, " + usernamePasswordPath / requests
+                + " with a UsernamePasswordAuthenticationToken");
+    }
+
+    private void authenticateWithJwtToken(UserDetails principal, Claims claims, int requests) {
+        for (int i = 0; i < requests; i++) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new JwtAuthenticationToken(principal, claims, request.getRemoteAddr()));
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Authenticates like the filter did before JwtAuthenticationToken, with a copy of the authorities and eagerly
+     * built request details.
+     */
+    private void authenticateWithUsernamePasswordToken(UserDetails principal, int requests) {
+        for (int i = 0; i < requests; i++) {
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtKeyProperties;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtKeyRing;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtKeyRingUnitTest {
+
+    private static final String SECRET = TestJwtUtils.SECRET;
+
+    private static final String NEW_SECRET = "bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0";
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testTokensOfPreviousSigningKeyStayValidAfterRotation() {
+        // Given a token signed with the legacy key
+        JwtUtils before = jwtUtils(new JwtKeyRing(properties(null), SECRET));
+        String oldToken = token(before);
+
+        // When the new key becomes the signing key
+        JwtUtils after = jwtUtils(new JwtKeyRing(properties("2026-10"), SECRET));
+        String newToken = token(after);
+
+        // Then both tokens are accepted, each verified with its own key
+        assertTrue(header(oldToken).contains("\"kid\":\"default\""));
+        assertTrue(header(newToken).contains("\"kid\":\"2026-10\""));
+        assertNotNull(after.parseClaims(oldToken));
+        assertNotNull(after.parseClaims(newToken));
+        assertNull(jwtUtils(new JwtKeyRing(SECRET)).parseClaims(newToken)); // An unknown key ID is rejected
+    }
+
+    @Test
+    public void testTokenWithoutKeyIdIsVerifiedWithDefaultKey() {
+        // Given a token issued before key IDs were used
+        String legacyToken = Jwts.builder()
+                .subject("alice")
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        // When
+        JwtUtils jwtUtils = jwtUtils(new JwtKeyRing(properties("2026-10"), SECRET));
+
+        // Then
+        assertEquals("alice", jwtUtils.parseClaims(legacyToken).getSubject());
+    }
+
+    @Test
+    public void testUnknownSigningKeyIdIsRejectedAtStartup() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new JwtKeyRing(properties("missing"), SECRET));
+        assertEquals("No JWT signing key with ID 'missing' is configured", e.getMessage());
+    }
+
+    @Test
+    public void testReloadIntervalIsBoundFromProperties() {
+        // Given the interval as documented, in kebab case
+        JwtKeyProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("app.jwt.keystore.reload-interval-ms", "5000")))
+                .bind("app.jwt", JwtKeyProperties.class)
+                .get();
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+        // When
+        new JwtKeyRing(properties, SECRET).configureTasks(registrar);
+
+        // Then
+        IntervalTask reload = registrar.getFixedDelayTaskList().get(0);
+        assertEquals(Duration.ofSeconds(5), reload.getIntervalDuration());
+        assertEquals(Duration.ofSeconds(5), reload.getInitialDelayDuration());
+    }
+
+    @Test
+    public void testKeystoreRotationWithoutRestart() throws Exception {
+        // Given a keystore with one key, signing right away
+        Path keystore = tempDir.resolve("jwt-keys.p12");
+        addKey(keystore, "k1", SECRET);
+        JwtKeyProperties properties = keystoreProperties(keystore, 0);
+        JwtKeyRing keyRing = new JwtKeyRing(properties, "");
+        JwtUtils jwtUtils = jwtUtils(keyRing);
+        String k1Token = token(jwtUtils);
+        assertEquals("k1", keyRing.signingKey().id());
+
+        // When a newer key is added
+        Thread.sleep(5);
+        addKey(keystore, "k2", NEW_SECRET);
+        keyRing.reload();
+
+        // Then it signs, and tokens of the previous key are still accepted
+        assertEquals("k2", keyRing.signingKey().id());
+        assertNotNull(jwtUtils.parseClaims(token(jwtUtils)));
+        assertNotNull(jwtUtils.parseClaims(k1Token));
+
+        // When the previous key is retired, its tokens are rejected
+        removeKey(keystore, "k1");
+        keyRing.reload();
+        assertNull(jwtUtils.parseClaims(k1Token));
+    }
+
+    @Test
+    public void testNewKeystoreKeyOnlyVerifiesDuringActivationDelay() throws Exception {
+        // Given
+        Path keystore = tempDir.resolve("jwt-keys.p12");
+        addKey(keystore, "k1", NEW_SECRET);
+
+        // When
+        JwtKeyRing keyRing = new JwtKeyRing(keystoreProperties(keystore, 60000), SECRET);
+
+        // Then it is not used for signing yet, but tokens signed with it by other instances are accepted
+        assertEquals(JwtKeyRing.DEFAULT_KEY_ID, keyRing.signingKey().id());
+        JwtKeyProperties early = new JwtKeyProperties();
+        early.setSigningKeyId("k1");
+        early.getKeys().put("k1", NEW_SECRET);
+        String k1Token = token(jwtUtils(new JwtKeyRing(early, "")));
+        assertNotNull(jwtUtils(keyRing).parseClaims(k1Token));
+    }
+
+    private JwtKeyProperties properties(String signingKeyId) {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setSigningKeyId(signingKeyId);
+        properties.getKeys().put("2026-10", NEW_SECRET);
+        return properties;
+    }
+
+    private JwtKeyProperties keystoreProperties(Path keystore, long activationDelayMs) {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.getKeystore().setPath(keystore.toString());
+        properties.getKeystore().setPassword(new String(PASSWORD));
+        properties.getKeystore().setActivationDelayMs(activationDelayMs);
+        return properties;
+    }
+
+    private JwtUtils jwtUtils(JwtKeyRing keyRing) {
+        return TestJwtUtils.builder().keyRing(keyRing).build();
+    }
+
+    private String token(JwtUtils jwtUtils) {
+        UserDetailsImpl principal = UserDetailsImpl.build(User.builder().id(1L).username("alice")
+                .roles(Set.of(Role.builder().id(1).name(ERole.ROLE_USER).build())).build());
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private String header(String token) {
+        return new String(Decoders.BASE64URL.decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    private void addKey(Path keystore, String alias, String secret) throws Exception {
+        KeyStore keyStore = load(keystore);
+        keyStore.setEntry(alias,
+                new KeyStore.SecretKeyEntry(new SecretKeySpec(Decoders.BASE64.decode(secret), "HmacSHA256")),
+                new KeyStore.PasswordProtection(PASSWORD));
+        store(keyStore, keystore);
+    }
+
+    private void removeKey(Path keystore, String alias) throws Exception {
+        KeyStore keyStore = load(keystore);
+        keyStore.deleteEntry(alias);
+        store(keyStore, keystore);
+    }
+
+    private KeyStore load(Path keystore) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        if (Files.exists(keystore)) {
+            try (InputStream in = Files.newInputStream(keystore)) {
+                keyStore.load(in, PASSWORD);
+            }
+        } else {
+            keyStore.load(null, PASSWORD);
+        }
+        return keyStore;
+    }
+
+    private void store(KeyStore keyStore, Path keystore) throws Exception {
+        try (OutputStream out = Files.newOutputStream(keystore)) {
+            keyStore.store(out, PASSWORD);
+        }
+    }
+}
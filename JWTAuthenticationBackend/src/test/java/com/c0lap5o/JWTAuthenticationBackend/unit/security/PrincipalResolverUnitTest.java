@@ -0,0 +1,189 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleMask;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PrincipalResolverUnitTest {
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private PrincipalResolver principalResolver;
+
+    private UserDetailsImpl alice;
+
+    private final Claims claims = Jwts.claims()
+            .subject("alice")
+            .add(JwtUtils.USER_ID_CLAIM, 7)
+            .add(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER", "ROLE_MODERATOR"))
+            .build();
+
+    @BeforeEach
+    public void setUp() {
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        // Open after 2 of 4 lookups failed, and stay open for the rest of the test
+        principalResolver = new PrincipalResolver(userDetailsService, 50, 500, 4, 60000, 100, 60000);
+        alice = UserDetailsImpl.build(User.builder().id(7L).username("alice").email("alice@example.com")
+                .password("hash").roles(Set.of(Role.builder().id(3).name(ERole.ROLE_ADMIN).build())).build());
+    }
+
+    @Test
+    public void testLoadsFromDatabaseWhileClosed() {
+        // Given
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+
+        // When
+        PrincipalResolver.Resolved resolved = principalResolver.resolve(claims);
+
+        // Then
+        assertSame(alice, resolved.principal());
+        assertTrue(resolved.fromDatabase());
+        assertEquals(CircuitBreaker.State.CLOSED, principalResolver.getCircuitBreakerState());
+    }
+
+    @Test
+    public void testFallsBackOnClaimsWithoutWaitingOnDatabaseWhenOpen() {
+        // Given a failing database
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenThrow(new DataAccessResourceFailureException("Connection timed out"));
+        for (int i = 0; i < 2; i++) {
+            principalResolver.resolve(claims);
+        }
+
+        // When
+        PrincipalResolver.Resolved resolved = principalResolver.resolve(claims);
+        UserDetailsImpl principal = (UserDetailsImpl) resolved.principal();
+
+        // Then
+        assertFalse(resolved.fromDatabase());
+        assertEquals(CircuitBreaker.State.OPEN, principalResolver.getCircuitBreakerState());
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+        assertEquals("alice", principal.getUsername());
+        assertEquals(7L, principal.getId());
+        assertTrue(principal.isDegraded());
+        assertNull(principal.getEmail());
+        assertSame(RoleMask.authorities(RoleMask.of(ERole.ROLE_USER, ERole.ROLE_MODERATOR)), principal.getAuthorities());
+    }
+
+    @Test
+    public void testFallsBackOnLastKnownGoodPrincipal() {
+        // Given a principal loaded before the database failed
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(alice)
+                .thenThrow(new DataAccessResourceFailureException("Connection timed out"));
+        principalResolver.resolve(claims);
+
+        // When
+        UserDetailsImpl principal = (UserDetailsImpl) principalResolver.resolve(claims).principal();
+
+        // Then
+        assertEquals(7L, principal.getId());
+        assertFalse(principal.isDegraded());
+        assertEquals("alice@example.com", principal.getEmail());
+        assertSame(alice.getAuthorities(), principal.getAuthorities());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    public void testInvalidateAllDropsLastKnownGoodPrincipals() {
+        // Given
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(alice)
+                .thenThrow(new DataAccessResourceFailureException("Connection timed out"));
+        principalResolver.resolve(claims);
+
+        // When
+        principalResolver.invalidateAll();
+        UserDetailsImpl principal = (UserDetailsImpl) principalResolver.resolve(claims).principal();
+
+        // Then
+        assertTrue(principal.isDegraded());
+    }
+
+    @Test
+    public void testFallsBackWhenNoConnectionIsAvailable() {
+        // Given
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available"));
+
+        // When
+        UserDetailsImpl principal = (UserDetailsImpl) principalResolver.resolve(claims).principal();
+
+        // Then
+        assertEquals("alice", principal.getUsername());
+        assertTrue(principal.isDegraded());
+    }
+
+    @Test
+    public void testFallbackForTokenWithoutUserIdHasNoId() {
+        // Given a token issued before the user ID claim existed
+        Claims legacyClaims = Jwts.claims().subject("alice").add(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER")).build();
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenThrow(new DataAccessResourceFailureException("Connection timed out"));
+
+        // When
+        UserDetailsImpl principal = (UserDetailsImpl) principalResolver.resolve(legacyClaims).principal();
+
+        // Then
+        assertNull(principal.getId());
+        assertTrue(principal.isDegraded());
+    }
+
+    @Test
+    public void testOtherFailuresPropagateAndDoNotOpenCircuit() {
+        // Given a failure that is not an outage
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(alice)
+                .thenThrow(new IllegalStateException("Unknown role"));
+        principalResolver.resolve(claims);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> principalResolver.resolve(claims));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, principalResolver.getCircuitBreakerState());
+    }
+
+    @Test
+    public void testUnknownUserIsRejectedAndDoesNotOpenCircuit() {
+        // Given
+        when(userDetailsService.loadUserByUsername("alice")).thenThrow(new UsernameNotFoundException("alice"));
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UsernameNotFoundException.class, () -> principalResolver.resolve(claims));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, principalResolver.getCircuitBreakerState());
+    }
+}
@@ -0,0 +1,87 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RequiresRole;
+import com.c0lap5o.JWTAuthenticationBackend.security.authorization.RoleAuthorizationManager;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RoleAuthorizationManagerUnitTest {
+
+    private final RoleAuthorizationManager authorizationManager = new RoleAuthorizationManager();
+
+    static class SecuredController {
+
+        @RequiresRole(ERole.ROLE_USER)
+        public void userAccess() {
+        }
+
+        @RequiresRole(ERole.ROLE_MODERATOR)
+        public void moderatorAccess() {
+        }
+
+        @RequiresRole(ERole.ROLE_ADMIN)
+        public void adminAccess() {
+        }
+    }
+
+    @Test
+    public void testAdminReachesEveryRole() throws Exception {
+        Authentication admin = authenticationWith(ERole.ROLE_ADMIN);
+
+        assertTrue(isGranted(admin, "userAccess"));
+        assertTrue(isGranted(admin, "moderatorAccess"));
+        assertTrue(isGranted(admin, "adminAccess"));
+    }
+
+    @Test
+    public void testModeratorReachesUserButNotAdmin() throws Exception {
+        Authentication moderator = authenticationWith(ERole.ROLE_MODERATOR);
+
+        assertTrue(isGranted(moderator, "userAccess"));
+        assertTrue(isGranted(moderator, "moderatorAccess"));
+        assertFalse(isGranted(moderator, "adminAccess"));
+    }
+
+    @Test
+    public void testUserOnlyReachesUser() throws Exception {
+        Authentication user = authenticationWith(ERole.ROLE_USER);
+
+        assertTrue(isGranted(user, "userAccess"));
+        assertFalse(isGranted(user, "moderatorAccess"));
+        assertFalse(isGranted(user, "adminAccess"));
+    }
+
+    @Test
+    public void testForeignPrincipalFallsBackToAuthorities() throws Exception {
+        Authentication moderator = new UsernamePasswordAuthenticationToken(
+                "external", null, List.of(new SimpleGrantedAuthority(ERole.ROLE_MODERATOR.name())));
+
+        assertTrue(isGranted(moderator, "userAccess"));
+        assertFalse(isGranted(moderator, "adminAccess"));
+    }
+
+    private static Authentication authenticationWith(ERole role) {
+        UserDetailsImpl userDetails = new UserDetailsImpl(1L, "user", "user@example.com", "password",
+                List.of(new SimpleGrantedAuthority(role.name())));
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private boolean isGranted(Authentication authentication, String methodName) throws Exception {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(SecuredController.class.getMethod(methodName));
+        when(invocation.getThis()).thenReturn(new SecuredController());
+        return authorizationManager.check(() -> authentication, invocation).isGranted();
+    }
+}
@@ -0,0 +1,80 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtKeyRing;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds JwtUtils outside a Spring context, with the values its injected fields get in the application, so the unit
+ * tests do not each set them by reflection.
+ */
+public final class TestJwtUtils {
+
+    /**
+     * The base64-encoded HMAC secret of the default key ring.
+     */
+    public static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private JwtKeyRing keyRing;
+
+    private int expirationMs = 60000;
+
+    private long renewalWindowMs;
+
+    private long maxSessionAgeMs;
+
+    private AuthTracing tracing;
+
+    private TestJwtUtils() {
+    }
+
+    /**
+     * Returns a builder of JwtUtils signing with {@link #SECRET}, issuing tokens valid for a minute and never
+     * renewing them.
+     */
+    public static TestJwtUtils builder() {
+        return new TestJwtUtils();
+    }
+
+    /**
+     * Returns JwtUtils with the defaults of {@link #builder()}.
+     */
+    public static JwtUtils create() {
+        return builder().build();
+    }
+
+    public TestJwtUtils keyRing(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        return this;
+    }
+
+    public TestJwtUtils expirationMs(int expirationMs) {
+        this.expirationMs = expirationMs;
+        return this;
+    }
+
+    public TestJwtUtils renewal(long renewalWindowMs, long maxSessionAgeMs) {
+        this.renewalWindowMs = renewalWindowMs;
+        this.maxSessionAgeMs = maxSessionAgeMs;
+        return this;
+    }
+
+    public TestJwtUtils tracing(AuthTracing tracing) {
+        this.tracing = tracing;
+        return this;
+    }
+
+    public JwtUtils build() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", keyRing == null ? new JwtKeyRing(SECRET) : keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "jwtRenewalWindowMs", renewalWindowMs);
+        ReflectionTestUtils.setField(jwtUtils, "jwtMaxSessionAgeMs", maxSessionAgeMs);
+        if (tracing != null) {
+            ReflectionTestUtils.setField(jwtUtils, "tracing", tracing);
+        }
+        jwtUtils.init();
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,78 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TokenRenewalUnitTest {
+
+    private final UserDetailsImpl principal = UserDetailsImpl.build(User.builder()
+            .id(1L).username("alice").email("alice@example.com").password("secret")
+            .roles(Set.of(Role.builder().id(1).name(ERole.ROLE_USER).build()))
+            .build());
+
+    @Test
+    public void testTokenNearExpiryIsRenewedOnceWithTheSameSession() {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(120000, 3600000);
+        Claims claims = jwtUtils.parseClaims(token(jwtUtils));
+
+        // When
+        String renewed = jwtUtils.renewJwtToken(claims, principal);
+        String again = jwtUtils.renewJwtToken(claims, principal);
+
+        // Then
+        assertNotNull(renewed);
+        assertNull(again); // One renewal per token
+        Claims renewedClaims = jwtUtils.parseClaims(renewed);
+        assertEquals("alice", renewedClaims.getSubject());
+        assertEquals(1L, JwtUtils.userId(claims));
+        assertEquals(1L, JwtUtils.userId(renewedClaims));
+        assertEquals(List.of("ROLE_USER"), renewedClaims.get(JwtUtils.ROLES_CLAIM));
+        assertEquals(claims.get(JwtUtils.SESSION_START_CLAIM), renewedClaims.get(JwtUtils.SESSION_START_CLAIM));
+        assertNotEquals(claims.getId(), renewedClaims.getId());
+        assertNotNull(jwtUtils.renewJwtToken(renewedClaims, principal)); // The fresh token can be renewed in turn
+    }
+
+    @Test
+    public void testTokenOutsideTheWindowIsNotRenewed() {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(1000, 3600000);
+        Claims claims = jwtUtils.parseClaims(token(jwtUtils));
+
+        // When / Then
+        assertNull(jwtUtils.renewJwtToken(claims, principal));
+    }
+
+    @Test
+    public void testRenewalNeverExtendsPastTheMaximumSessionAge() {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(120000, 30000);
+        Claims claims = jwtUtils.parseClaims(token(jwtUtils));
+
+        // When / Then
+        assertNull(jwtUtils.renewJwtToken(claims, principal)); // The session ends before the token expires anyway
+    }
+
+    private JwtUtils jwtUtils(long renewalWindowMs, long maxSessionAgeMs) {
+        return TestJwtUtils.builder().renewal(renewalWindowMs, maxSessionAgeMs).build();
+    }
+
+    private String token(JwtUtils jwtUtils) {
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.security;
+
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.TokenVerifyFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TokenVerifyFilterUnitTest {
+
+    private static final String PROXY_SECRET = "proxy-secret";
+
+    private JwtUtils jwtUtils;
+
+    private TokenVerifyFilter filter;
+
+    private FilterChain chain;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = mock(JwtUtils.class);
+        filter = new TokenVerifyFilter(new VerifiedTokenCache(jwtUtils, 60000, 100), PROXY_SECRET);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    public void testValidTokenAnswers204WithHeadersFromCache() throws Exception {
+        // Given
+        Claims claims = Jwts.claims()
+                .subject("alice")
+                .add(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER", "ROLE_ADMIN"))
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .build();
+        when(jwtUtils.parseClaimsQuietly("good")).thenReturn(claims);
+
+        // When
+        MockHttpServletResponse first = verifyRequest("Bearer good");
+        MockHttpServletResponse second = verifyRequest("Bearer good");
+
+        // Then
+        assertEquals(204, first.getStatus());
+        assertEquals("alice", first.getHeader(TokenVerifyFilter.SUBJECT_HEADER));
+        assertEquals("ROLE_USER,ROLE_ADMIN", first.getHeader(TokenVerifyFilter.ROLES_HEADER));
+        assertEquals(204, second.getStatus());
+        verify(jwtUtils, times(1)).parseClaimsQuietly("good"); // The second request is served from the cache
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    public void testInvalidOrMissingTokenAnswers401WithEmptyBody() throws Exception {
+        // Given
+        when(jwtUtils.parseClaimsQuietly("bad")).thenReturn(null);
+
+        // When
+        MockHttpServletResponse invalid = verifyRequest("Bearer bad");
+        MockHttpServletResponse missing = verifyRequest(null);
+        verifyRequest("Bearer bad");
+
+        // Then
+        assertEquals(401, invalid.getStatus());
+        assertEquals(0, invalid.getContentAsByteArray().length);
+        assertNull(invalid.getHeader(TokenVerifyFilter.SUBJECT_HEADER));
+        assertEquals(401, missing.getStatus());
+        verify(jwtUtils, times(2)).parseClaimsQuietly("bad"); // Invalid tokens are never cached
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    public void testCallerWithoutProxySecretIsForbidden() throws Exception {
+        // When
+        MockHttpServletResponse anonymous = verifyRequest("Bearer good", null);
+        MockHttpServletResponse wrongSecret = verifyRequest("Bearer good", "guess");
+        MockHttpServletResponse noSecretConfigured = verifyRequest(
+                new TokenVerifyFilter(new VerifiedTokenCache(jwtUtils, 60000, 100), ""), "Bearer good", "");
+
+        // Then the token is never looked at
+        assertEquals(403, anonymous.getStatus());
+        assertEquals(0, anonymous.getContentAsByteArray().length);
+        assertEquals(403, wrongSecret.getStatus());
+        assertEquals(403, noSecretConfigured.getStatus());
+        verify(jwtUtils, never()).parseClaimsQuietly(any());
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse verifyRequest(String authorization) throws Exception {
+        return verifyRequest(authorization, PROXY_SECRET);
+    }
+
+    private MockHttpServletResponse verifyRequest(String authorization, String secret) throws Exception {
+        return verifyRequest(filter, authorization, secret);
+    }
+
+    private MockHttpServletResponse verifyRequest(TokenVerifyFilter filter, String authorization, String secret)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", TokenVerifyFilter.PATH);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        if (secret != null) {
+            request.addHeader(TokenVerifyFilter.SECRET_HEADER, secret);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.MessageResponse;
+import com.c0lap5o.JWTAuthenticationBackend.services.IdempotentResponseStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotentResponseStoreUnitTest {
+
+    private final IdempotentResponseStore store = new IdempotentResponseStore(60000, 1000, 5000);
+
+    @Test
+    public void testConcurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        MessageResponse body = new MessageResponse("User registered successfully!");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(executor.submit(() -> store.execute("key-1", "fingerprint", () -> {
+                executions.incrementAndGet();
+                await(release);
+                return ResponseEntity.ok(body);
+            })));
+        }
+        Thread.sleep(200); // Let the duplicates reach the store while the first execution blocks
+        release.countDown();
+
+        // Then
+        int replayed = 0;
+        for (Future<ResponseEntity<?>> response : responses) {
+            ResponseEntity<?> result = response.get(5, TimeUnit.SECONDS);
+            assertSame(body, result.getBody());
+            replayed += result.getHeaders().containsKey(IdempotentResponseStore.REPLAYED_HEADER) ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(1, executions.get());
+        assertEquals(3, replayed);
+    }
+
+    @Test
+    public void testReusedKeyWithDifferentRequestIsRejected() {
+        // Given
+        store.execute("key-2", IdempotentResponseStore.fingerprint("alice", "secret"),
+                () -> ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!")));
+
+        // When
+        ResponseEntity<?> replay = store.execute("key-2", IdempotentResponseStore.fingerprint("alice", "secret"),
+                () -> ResponseEntity.ok().build());
+        ResponseEntity<?> other = store.execute("key-2", IdempotentResponseStore.fingerprint("alice", "other"),
+                () -> ResponseEntity.ok().build());
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, replay.getStatusCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, other.getStatusCode());
+    }
+
+    @Test
+    public void testFailedExecutionFreesTheKey() {
+        // Given
+        assertThrows(IllegalStateException.class, () -> store.execute("key-3", "fingerprint", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        // When
+        ResponseEntity<?> retry = store.execute("key-3", "fingerprint", () -> ResponseEntity.ok().build());
+
+        // Then
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertNull(retry.getHeaders().get(IdempotentResponseStore.REPLAYED_HEADER));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
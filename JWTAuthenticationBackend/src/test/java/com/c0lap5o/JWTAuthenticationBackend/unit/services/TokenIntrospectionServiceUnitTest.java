@@ -0,0 +1,114 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.services;
+
+import com.c0lap5o.JWTAuthenticationBackend.dto.response.TokenIntrospection;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.services.TokenIntrospectionService;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.unit.security.TestJwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenIntrospectionServiceUnitTest {
+
+    private JwtUtils jwtUtils;
+
+    private TokenIntrospectionService introspectionService;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = TestJwtUtils.create();
+        introspectionService = new TokenIntrospectionService(jwtUtils, 4, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        introspectionService.shutdown();
+    }
+
+    @Test
+    public void testActiveTokenCarriesSubjectRolesAndExpiration() {
+        // Given
+        String token = token("alice", "ROLE_USER", "ROLE_MODERATOR");
+
+        // When
+        TokenIntrospection result = introspectionService.introspect(token);
+
+        // Then
+        assertTrue(result.isActive());
+        assertEquals("alice", result.getSub());
+        assertEquals(List.of("ROLE_USER", "ROLE_MODERATOR"), result.getRoles());
+        assertNotNull(result.getExp());
+        assertTrue(result.getExp() > System.currentTimeMillis() / 1000);
+    }
+
+    @Test
+    public void testInvalidTokensAreInactive() {
+        // Given
+        String token = token("alice", "ROLE_USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When / Then
+        for (String invalid : new String[] {tampered, "not-a-jwt", "", null}) {
+            TokenIntrospection result = introspectionService.introspect(invalid);
+            assertFalse(result.isActive());
+            assertNull(result.getSub());
+        }
+    }
+
+    @Test
+    public void testInactiveResultsAreNotShared() {
+        // Given
+        TokenIntrospection first = introspectionService.introspect("not-a-jwt");
+
+        // When
+        first.setActive(true);
+        first.setSub("mallory");
+
+        // Then
+        TokenIntrospection second = introspectionService.introspect("not-a-jwt");
+        assertFalse(second.isActive());
+        assertNull(second.getSub());
+    }
+
+    @Test
+    public void testParallelBatchKeepsRequestOrder() {
+        // Given a batch above the parallel threshold, with every third token invalid
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tokens.add(i % 3 == 0 ? "invalid-" + i : token("user" + i, "ROLE_USER"));
+        }
+
+        // When
+        List<TokenIntrospection> results = introspectionService.introspect(tokens);
+
+        // Then
+        assertEquals(tokens.size(), results.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(i % 3 != 0, results.get(i).isActive());
+            if (i % 3 != 0) {
+                assertEquals("user" + i, results.get(i).getSub());
+            }
+        }
+    }
+
+    private String token(String username, String... roles) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        UserDetailsImpl principal = new UserDetailsImpl(1L, username, username + "@example.com", "secret", authorities);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+}
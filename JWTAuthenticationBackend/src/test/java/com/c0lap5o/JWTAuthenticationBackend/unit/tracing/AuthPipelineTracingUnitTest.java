@@ -0,0 +1,216 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.tracing;
+
+import com.c0lap5o.JWTAuthenticationBackend.datasource.ReplicaLagFallback;
+import com.c0lap5o.JWTAuthenticationBackend.model.ERole;
+import com.c0lap5o.JWTAuthenticationBackend.model.Role;
+import com.c0lap5o.JWTAuthenticationBackend.model.User;
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.AuthTokenFilter;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.PrincipalResolver;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsImpl;
+import com.c0lap5o.JWTAuthenticationBackend.services.UserDetailsServiceImpl;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.AuthTracing;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.RepositoryTracingInterceptor;
+import com.c0lap5o.JWTAuthenticationBackend.tracing.TracingPasswordEncoder;
+import com.c0lap5o.JWTAuthenticationBackend.unit.security.TestJwtUtils;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AuthPipelineTracingUnitTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private SdkTracerProvider tracerProvider;
+
+    private AuthTracing tracing;
+
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        tracing = new AuthTracing(OpenTelemetrySdk.builder().setTracerProvider(tracerProvider).build());
+        userRepository = mock(UserRepository.class);
+        user = User.builder().id(1L).username("alice").email("alice@example.com").password("secret")
+                .roles(Set.of(Role.builder().id(1).name(ERole.ROLE_USER).build()))
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        tracerProvider.close();
+    }
+
+    @Test
+    public void testAuthenticatedRequestSpans() throws Exception {
+        // Given
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        JwtUtils jwtUtils = jwtUtils(60000);
+        String token = token(jwtUtils);
+        exporter.reset();
+
+        // When
+        filter(jwtUtils).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        SpanData filterSpan = span("AuthTokenFilter");
+        SpanData parseSpan = span("jwt.parse");
+        SpanData repositorySpan = span("UserRepository.findByUsername");
+        assertEquals(3, exporter.getFinishedSpanItems().size());
+        assertFalse(filterSpan.getParentSpanContext().isValid());
+        assertEquals(filterSpan.getSpanId(), parseSpan.getParentSpanId());
+        assertEquals(filterSpan.getSpanId(), repositorySpan.getParentSpanId());
+        assertEquals(filterSpan.getTraceId(), repositorySpan.getTraceId());
+        assertEquals("authenticated", filterSpan.getAttributes().get(AuthTracing.OUTCOME));
+        assertEquals("database", filterSpan.getAttributes().get(AuthTracing.PRINCIPAL_SOURCE));
+        assertNull(filterSpan.getAttributes().get(AuthTracing.REJECTION_REASON));
+        assertEquals(UserRepository.class.getName(), repositorySpan.getAttributes().get(AuthTracing.CODE_NAMESPACE));
+        assertEquals("findByUsername", repositorySpan.getAttributes().get(AuthTracing.CODE_FUNCTION));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejectedWithReason() throws Exception {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(-1000);
+        String token = token(jwtUtils);
+        exporter.reset();
+
+        // When
+        filter(jwtUtils).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        SpanData filterSpan = span("AuthTokenFilter");
+        SpanData parseSpan = span("jwt.parse");
+        assertEquals(2, exporter.getFinishedSpanItems().size());
+        assertEquals("rejected", filterSpan.getAttributes().get(AuthTracing.OUTCOME));
+        assertEquals("invalid_token", filterSpan.getAttributes().get(AuthTracing.REJECTION_REASON));
+        assertEquals("expired", parseSpan.getAttributes().get(AuthTracing.REJECTION_REASON));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void testUnknownUserIsRejectedWithReason() throws Exception {
+        // Given
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        JwtUtils jwtUtils = jwtUtils(60000);
+        String token = token(jwtUtils);
+        exporter.reset();
+
+        // When
+        filter(jwtUtils).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        SpanData filterSpan = span("AuthTokenFilter");
+        assertEquals("rejected", filterSpan.getAttributes().get(AuthTracing.OUTCOME));
+        assertEquals("user_not_found", filterSpan.getAttributes().get(AuthTracing.REJECTION_REASON));
+    }
+
+    @Test
+    public void testRequestWithoutTokenIsAnonymous() throws Exception {
+        // When
+        filter(jwtUtils(60000)).doFilter(request(null), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        assertEquals("anonymous", spans.get(0).getAttributes().get(AuthTracing.OUTCOME));
+    }
+
+    @Test
+    public void testPasswordEncoderSpans() {
+        // Given
+        TracingPasswordEncoder encoder = new TracingPasswordEncoder(new BCryptPasswordEncoder(4), tracing);
+
+        // When
+        String encoded = encoder.encode("secret");
+        boolean matched = encoder.matches("wrong", encoded);
+
+        // Then
+        assertFalse(matched);
+        assertTrue(encoder.matches("secret", encoded));
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertEquals(List.of("password.encode", "password.matches", "password.matches"),
+                spans.stream().map(SpanData::getName).toList());
+        assertEquals(false, spans.get(1).getAttributes().get(AuthTracing.PASSWORD_MATCHED));
+        assertEquals(true, spans.get(2).getAttributes().get(AuthTracing.PASSWORD_MATCHED));
+    }
+
+    private JwtUtils jwtUtils(int expirationMs) {
+        return TestJwtUtils.builder().expirationMs(expirationMs).tracing(tracing).build();
+    }
+
+    private String token(JwtUtils jwtUtils) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private AuthTokenFilter filter(JwtUtils jwtUtils) {
+        // Proxy the repository like Spring Data does, with the tracing interceptor
+        ProxyFactory proxyFactory = new ProxyFactory(userRepository);
+        proxyFactory.addInterface(UserRepository.class);
+        proxyFactory.addAdvice(new RepositoryTracingInterceptor(tracing, UserRepository.class));
+
+        ReplicaLagFallback replicaLagFallback = mock(ReplicaLagFallback.class);
+        when(replicaLagFallback.retryOnPrimary(any())).thenReturn(Optional.empty());
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", proxyFactory.getProxy());
+        ReflectionTestUtils.setField(userDetailsService, "replicaLagFallback", replicaLagFallback);
+
+        AuthTokenFilter filter = new AuthTokenFilter(new AntPathRequestMatcher("/api/auth/**"));
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "principalResolver",
+                new PrincipalResolver(userDetailsService, 50, 500, 20, 10000, 100, 60000));
+        ReflectionTestUtils.setField(filter, "tracing", tracing);
+        return filter;
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/users");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private SpanData span(String name) {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span named " + name));
+    }
+}
@@ -0,0 +1,72 @@
+package com.c0lap5o.JWTAuthenticationBackend.unit.warmup;
+
+import com.c0lap5o.JWTAuthenticationBackend.repository.UserRepository;
+import com.c0lap5o.JWTAuthenticationBackend.security.jwt.JwtUtils;
+import com.c0lap5o.JWTAuthenticationBackend.warmup.WarmupHealthIndicator;
+import com.c0lap5o.JWTAuthenticationBackend.warmup.WarmupRunner;
+import com.c0lap5o.JWTAuthenticationBackend.unit.security.TestJwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class WarmupRunnerUnitTest {
+
+    private JwtUtils jwtUtils;
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = TestJwtUtils.create();
+        userRepository = mock(UserRepository.class);
+    }
+
+    @Test
+    public void testReadinessIsDownUntilWarmupCompletes() throws Exception {
+        // Given
+        WarmupRunner runner = runner(true, 200);
+        WarmupHealthIndicator healthIndicator = new WarmupHealthIndicator(runner);
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        // When
+        runner.run(null);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!runner.isComplete() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Then
+        Health health = healthIndicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertTrue((Integer) health.getDetails().get("iterations") > 0);
+        verify(userRepository, atLeastOnce()).findByUsername("warmup-synthetic-user");
+    }
+
+    @Test
+    public void testDisabledWarmupIsImmediatelyReady() {
+        // Given
+        WarmupRunner runner = runner(false, 200);
+
+        // When
+        runner.run(null);
+
+        // Then
+        assertTrue(runner.isComplete());
+        assertEquals(0, runner.getIterations());
+        assertEquals(Status.UP, new WarmupHealthIndicator(runner).health().getStatus());
+    }
+
+    private WarmupRunner runner(boolean enabled, long durationMs) {
+        return new WarmupRunner(jwtUtils, new BCryptPasswordEncoder(4), userRepository, new ObjectMapper(),
+                enabled, durationMs);
+    }
+}
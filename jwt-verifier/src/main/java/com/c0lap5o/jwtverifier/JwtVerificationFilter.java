@@ -0,0 +1,119 @@
+package com.c0lap5o.jwtverifier;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Optional servlet filter for resource servers, verifying the bearer token of each request locally.
+ * The claims of a valid token are stored in the {@link #CLAIMS_ATTRIBUTE} request attribute; a request with an
+ * invalid token is answered with 401 and never reaches the application. Requests without a token pass through
+ * unless a token is required.
+ */
+public class JwtVerificationFilter implements Filter {
+
+  /**
+   * The request attribute holding the verified claims.
+   */
+  public static final String CLAIMS_ATTRIBUTE = JwtVerificationFilter.class.getName() + ".CLAIMS";
+
+  /**
+   * The prefix of a bearer token in the Authorization header.
+   */
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  /**
+   * The verifier checking the tokens.
+   */
+  private final TokenVerifier verifier;
+
+  /**
+   * Whether requests without a token are rejected.
+   */
+  private final boolean tokenRequired;
+
+  /**
+   * Constructor to verify bearer tokens with the given verifier.
+   *
+   * @param verifier The verifier checking the tokens.
+   * @param tokenRequired Whether requests without a token are rejected.
+   */
+  public JwtVerificationFilter(TokenVerifier verifier, boolean tokenRequired) {
+    this.verifier = verifier;
+    this.tokenRequired = tokenRequired;
+  }
+
+  /**
+   * Verifies the bearer token of the request, if any, and passes the request on or rejects it.
+   *
+   * @param request The servlet request.
+   * @param response The servlet response.
+   * @param chain The filter chain.
+   * @throws IOException If an I/O error occurs.
+   * @throws ServletException If the rest of the chain fails.
+   */
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+          throws IOException, ServletException {
+    String token = resolveBearerToken(((HttpServletRequest) request).getHeader("Authorization"));
+    if (token == null) {
+      if (tokenRequired) {
+        unauthorized((HttpServletResponse) response);
+        return;
+      }
+      chain.doFilter(request, response);
+      return;
+    }
+
+    Claims claims = verifier.verifyOrNull(token);
+    if (claims == null) {
+      unauthorized((HttpServletResponse) response);
+      return;
+    }
+
+    request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+    chain.doFilter(request, response);
+  }
+
+  /**
+   * Returns the verified claims stored by the filter.
+   *
+   * @param request The servlet request.
+   * @return The claims, or null if the request carried no token.
+   */
+  public static Claims claims(ServletRequest request) {
+    return (Claims) request.getAttribute(CLAIMS_ATTRIBUTE);
+  }
+
+  /**
+   * Extracts the token from an Authorization header.
+   *
+   * @param authorization The header value, may be null.
+   * @return The token, or null if the header does not carry a bearer token.
+   */
+  public static String resolveBearerToken(String authorization) {
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)
+            || authorization.length() == BEARER_PREFIX.length()) {
+      return null;
+    }
+    return authorization.substring(BEARER_PREFIX.length());
+  }
+
+  /**
+   * Answers the request with 401 and a bearer challenge.
+   *
+   * @param response The servlet response.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static void unauthorized(HttpServletResponse response) throws IOException {
+    response.setHeader("WWW-Authenticate", "Bearer");
+    response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+  }
+}
@@ -0,0 +1,331 @@
+package com.c0lap5o.jwtverifier;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable ring of the keys tokens are verified with, indexed by key ID ("kid"), and optionally the key
+ * new tokens are signed with.
+ * Keys are either HMAC secrets, which verify and sign, or RSA and EC public keys, which only verify; their private
+ * keys sign on the issuer. Anyone holding an HMAC verification key can also sign tokens with it, so services that
+ * must not be able to issue tokens should only be given public keys.
+ * Tokens without a key ID were issued before key IDs existed and are verified with the "default" key.
+ * A ring is never modified; to rotate keys, build a new one and hand it to {@link TokenVerifier#setKeyRing}.
+ */
+public final class KeyRing {
+
+  /**
+   * The key ID of the legacy single secret, also used for tokens without a key ID.
+   */
+  public static final String DEFAULT_KEY_ID = "default";
+
+  /**
+   * The verification keys by key ID, HMAC secrets or public keys.
+   */
+  private final Map<String, Key> keys;
+
+  /**
+   * The signing key, or null for a ring that only verifies.
+   */
+  private final SigningKey signingKey;
+
+  /**
+   * Constructor used by the builder.
+   *
+   * @param keys The verification keys by key ID.
+   * @param signingKey The signing key, may be null.
+   */
+  private KeyRing(Map<String, Key> keys, SigningKey signingKey) {
+    this.keys = Map.copyOf(keys);
+    this.signingKey = signingKey;
+  }
+
+  /**
+   * Creates a builder for a key ring.
+   *
+   * @return The builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the verification key with the given key ID.
+   *
+   * @param keyId The key ID from the token header, or null for tokens without one.
+   * @return The HMAC secret or public key, or null if the key ID is not in the ring.
+   */
+  public Key verificationKey(String keyId) {
+    return keys.get(keyId == null ? DEFAULT_KEY_ID : keyId);
+  }
+
+  /**
+   * Returns the IDs of the keys in the ring.
+   *
+   * @return The key IDs.
+   */
+  public Set<String> keyIds() {
+    return keys.keySet();
+  }
+
+  /**
+   * Returns whether the ring can sign new tokens.
+   *
+   * @return True if a signing key is set.
+   */
+  public boolean canSign() {
+    return signingKey != null;
+  }
+
+  /**
+   * Returns the key new tokens are signed with, together with its ID.
+   *
+   * @return The signing key.
+   * @throws IllegalStateException If the ring only verifies.
+   */
+  public SigningKey signingKey() {
+    if (signingKey == null) {
+      throw new IllegalStateException("The JWT key ring has no signing key");
+    }
+    return signingKey;
+  }
+
+  /**
+   * A signing key with its key ID.
+   *
+   * @param id The key ID, written into the header of signed tokens.
+   * @param key The HMAC secret or private key.
+   */
+  public record SigningKey(String id, Key key) {
+  }
+
+  /**
+   * Builder collecting the keys of a ring. A later key replaces an earlier one with the same ID.
+   */
+  public static final class Builder {
+
+    /**
+     * The verification keys added so far.
+     */
+    private final Map<String, Key> keys = new HashMap<>();
+
+    /**
+     * The keys that can sign, by the ID of their verification key.
+     */
+    private final Map<String, Key> signingKeys = new HashMap<>();
+
+    /**
+     * The explicitly chosen signing key ID, may be null.
+     */
+    private String signingKeyId;
+
+    /**
+     * The ID of the newest keystore key past its activation delay, may be null.
+     */
+    private String newestActiveKeyId;
+
+    /**
+     * The creation time of the newest active keystore key.
+     */
+    private long newestActiveCreated = Long.MIN_VALUE;
+
+    /**
+     * Constructor, see {@link KeyRing#builder()}.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param keyId The key ID.
+     * @param key The HMAC key.
+     * @return This builder.
+     */
+    public Builder key(String keyId, SecretKey key) {
+      keys.put(keyId, key);
+      signingKeys.put(keyId, key);
+      return this;
+    }
+
+    /**
+     * Adds an RSA or EC public key, which only verifies.
+     *
+     * @param keyId The key ID.
+     * @param key The public key.
+     * @return This builder.
+     * @throws IllegalArgumentException If the key is neither an RSA nor an EC key.
+     */
+    public Builder publicKey(String keyId, PublicKey key) {
+      keys.put(keyId, requireAsymmetric(key));
+      signingKeys.remove(keyId);
+      return this;
+    }
+
+    /**
+     * Adds an RSA or EC key pair, whose private key signs and whose public key verifies.
+     *
+     * @param keyId The key ID.
+     * @param privateKey The private key.
+     * @param publicKey The public key.
+     * @return This builder.
+     * @throws IllegalArgumentException If the keys are neither RSA nor EC keys.
+     */
+    public Builder keyPair(String keyId, PrivateKey privateKey, PublicKey publicKey) {
+      keys.put(keyId, requireAsymmetric(publicKey));
+      signingKeys.put(keyId, requireAsymmetric(privateKey));
+      return this;
+    }
+
+    /**
+     * Adds a PEM-encoded RSA or EC public key ("BEGIN PUBLIC KEY") or X.509 certificate ("BEGIN CERTIFICATE"),
+     * as exported from the issuer's keystore, which only verifies.
+     *
+     * @param keyId The key ID.
+     * @param pem The PEM text.
+     * @return This builder.
+     * @throws GeneralSecurityException If the PEM text holds no RSA or EC public key.
+     */
+    public Builder publicKeyPem(String keyId, String pem) throws GeneralSecurityException {
+      String body = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+      byte[] der = Base64.getDecoder().decode(body);
+      if (pem.contains("BEGIN CERTIFICATE")) {
+        Certificate certificate = CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(der));
+        return publicKey(keyId, certificate.getPublicKey());
+      }
+      try {
+        return publicKey(keyId, KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(der)));
+      } catch (InvalidKeySpecException e) {
+        return publicKey(keyId, KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(der)));
+      }
+    }
+
+    /**
+     * Adds a base64-encoded secret as an HMAC key.
+     *
+     * @param keyId The key ID.
+     * @param secret The base64-encoded secret.
+     * @return This builder.
+     */
+    public Builder base64Key(String keyId, String secret) {
+      return key(keyId, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+
+    /**
+     * Adds the keys of a PKCS12 keystore, using their aliases as key IDs: HMAC secret keys, RSA and EC private keys
+     * with the public key of their certificate, and trusted RSA and EC certificates, which only verify.
+     * The newest signing key created at least the activation delay ago becomes the signing key, unless one is
+     * chosen explicitly, so every instance has picked up a new key before tokens signed with it appear.
+     *
+     * @param path The keystore file.
+     * @param password The password of the keystore and its keys.
+     * @param activationDelayMs How long a new key only verifies before it signs.
+     * @return This builder.
+     * @throws IOException If the keystore cannot be read.
+     * @throws GeneralSecurityException If the keystore or one of its keys cannot be loaded.
+     */
+    public Builder keystore(Path path, char[] password, long activationDelayMs)
+            throws IOException, GeneralSecurityException {
+      KeyStore keyStore = KeyStore.getInstance("PKCS12");
+      try (InputStream in = Files.newInputStream(path)) {
+        keyStore.load(in, password);
+      }
+
+      long activeBefore = System.currentTimeMillis() - activationDelayMs;
+      for (String alias : Collections.list(keyStore.aliases())) {
+        if (keyStore.isCertificateEntry(alias)) {
+          PublicKey key = keyStore.getCertificate(alias).getPublicKey();
+          if (key instanceof RSAKey || key instanceof ECKey) {
+            publicKey(alias, key);
+          }
+          continue;
+        }
+        Key key = keyStore.getKey(alias, password);
+        if (key instanceof SecretKey secret) {
+          key(alias, Keys.hmacShaKeyFor(secret.getEncoded()));
+        } else if (key instanceof PrivateKey privateKey && (key instanceof RSAKey || key instanceof ECKey)) {
+          keyPair(alias, privateKey, keyStore.getCertificate(alias).getPublicKey());
+        } else {
+          continue;
+        }
+
+        Date created = keyStore.getCreationDate(alias);
+        if (created != null && created.getTime() <= activeBefore && created.getTime() > newestActiveCreated) {
+          newestActiveKeyId = alias;
+          newestActiveCreated = created.getTime();
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Chooses the signing key explicitly.
+     *
+     * @param keyId The key ID, or null to choose it automatically.
+     * @return This builder.
+     */
+    public Builder signingKeyId(String keyId) {
+      this.signingKeyId = keyId;
+      return this;
+    }
+
+    /**
+     * Builds the ring. An explicit signing key wins over the newest active keystore key, which wins over the
+     * "default" key; without any of them the ring only verifies.
+     *
+     * @return The key ring.
+     * @throws IllegalStateException If the explicit signing key is not in the ring or cannot sign.
+     */
+    public KeyRing build() {
+      String keyId = signingKeyId != null ? signingKeyId
+              : newestActiveKeyId != null ? newestActiveKeyId
+              : DEFAULT_KEY_ID;
+      Key key = signingKeys.get(keyId);
+      if (key == null && signingKeyId != null) {
+        throw new IllegalStateException("No JWT signing key with ID '" + signingKeyId + "' is configured");
+      }
+      return new KeyRing(keys, key == null ? null : new SigningKey(keyId, key));
+    }
+
+    /**
+     * Checks that a key is an RSA or EC key, the only asymmetric keys tokens are signed with.
+     *
+     * @param key The key.
+     * @param <K> The type of the key.
+     * @return The key.
+     * @throws IllegalArgumentException If the key is neither an RSA nor an EC key.
+     */
+    private static <K extends Key> K requireAsymmetric(K key) {
+      if (!(key instanceof RSAKey || key instanceof ECKey)) {
+        throw new IllegalArgumentException("Only RSA and EC keys are supported, got " + key.getAlgorithm());
+      }
+      return key;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.c0lap5o.jwtverifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import java.security.Key;
+import java.util.List;
+
+/**
+ * Verifies signed tokens against a key ring and returns their claims.
+ * The parser is built once and resolves the key of each token from its key ID through the current ring, so
+ * verifying a token is a signature check and a map lookup, and keys can be rotated without rebuilding it.
+ * Instances are thread-safe.
+ */
+public class TokenVerifier {
+
+  /**
+   * The name of the claim holding the user's roles.
+   */
+  public static final String ROLES_CLAIM = "roles";
+
+  /**
+   * The shared, thread-safe parser.
+   */
+  private final JwtParser parser;
+
+  /**
+   * The current key ring.
+   */
+  private volatile KeyRing keyRing;
+
+  /**
+   * Constructor to verify tokens against the given key ring.
+   *
+   * @param keyRing The key ring.
+   */
+  public TokenVerifier(KeyRing keyRing) {
+    this.keyRing = keyRing;
+    this.parser = Jwts.parser().keyLocator(new KeyRingLocator()).build();
+  }
+
+  /**
+   * Returns the current key ring.
+   *
+   * @return The key ring.
+   */
+  public KeyRing getKeyRing() {
+    return keyRing;
+  }
+
+  /**
+   * Replaces the key ring; tokens verified from now on use the new keys.
+   *
+   * @param keyRing The new key ring.
+   */
+  public void setKeyRing(KeyRing keyRing) {
+    this.keyRing = keyRing;
+  }
+
+  /**
+   * Verifies a token and returns its claims.
+   *
+   * @param token The compact token.
+   * @return The verified claims.
+   * @throws JwtException If the token is malformed, expired, signed with an unknown key or not validly signed.
+   * @throws IllegalArgumentException If the token is null or empty.
+   */
+  public Claims verify(String token) {
+    return parser.parseSignedClaims(token).getPayload();
+  }
+
+  /**
+   * Verifies a token and returns its claims, or null if it is invalid for any reason.
+   *
+   * @param token The compact token.
+   * @return The verified claims, or null.
+   */
+  public Claims verifyOrNull(String token) {
+    try {
+      return verify(token);
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the roles claim of a token.
+   *
+   * @param claims The verified claims.
+   * @return The roles, or an empty list for tokens issued without the claim.
+   */
+  public static List<String> roles(Claims claims) {
+    Object roles = claims.get(ROLES_CLAIM);
+    if (!(roles instanceof List<?> list)) {
+      return List.of();
+    }
+    return list.stream().map(String::valueOf).toList();
+  }
+
+  /**
+   * Resolves the verification key of a token from its key ID through the current ring.
+   */
+  private class KeyRingLocator extends LocatorAdapter<Key> {
+
+    /**
+     * Resolves the verification key of a signed token.
+     *
+     * @param header The header of the token.
+     * @return The verification key.
+     * @throws UnsupportedJwtException If the key ID is not in the ring.
+     */
+    @Override
+    protected Key locate(JwsHeader header) {
+      Key key = keyRing.verificationKey(header.getKeyId());
+      if (key == null) {
+        throw new UnsupportedJwtException("Unknown JWT key ID: " + header.getKeyId());
+      }
+      return key;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.c0lap5o.jwtverifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.SecretKey;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TokenVerifierUnitTest {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private static final SecretKey K1 = Jwts.SIG.HS256.key().build();
+
+    private static final SecretKey K2 = Jwts.SIG.HS256.key().build();
+
+    @Test
+    public void testVerifiesTokensOfEveryKeyInTheRing() {
+        // Given
+        TokenVerifier verifier = new TokenVerifier(KeyRing.builder().base64Key(KeyRing.DEFAULT_KEY_ID, SECRET)
+                .key("k1", K1).build());
+        String legacy = Jwts.builder().subject("alice").claim(TokenVerifier.ROLES_CLAIM, List.of("ROLE_USER"))
+                .signWith(KeyRing.builder().base64Key("x", SECRET).signingKeyId("x").build().signingKey().key())
+                .compact();
+
+        // When
+        Claims legacyClaims = verifier.verify(legacy);
+        Claims k1Claims = verifier.verify(token("k1", K1, 60000));
+
+        // Then
+        assertEquals("alice", legacyClaims.getSubject());
+        assertEquals(List.of("ROLE_USER"), TokenVerifier.roles(legacyClaims));
+        assertEquals("bob", k1Claims.getSubject());
+    }
+
+    @Test
+    public void testRejectsUnknownKeysAndExpiredTokens() {
+        // Given
+        TokenVerifier verifier = new TokenVerifier(KeyRing.builder().key("k1", K1).build());
+
+        // When / Then
+        assertFalse(verifier.getKeyRing().canSign());
+        assertThrows(UnsupportedJwtException.class, () -> verifier.verify(token("k2", K2, 60000)));
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token("k1", K1, -60000)));
+        assertNull(verifier.verifyOrNull("not.a.token"));
+        assertNull(verifier.verifyOrNull(null));
+    }
+
+    @Test
+    public void testSetKeyRingRotatesKeys() {
+        // Given
+        TokenVerifier verifier = new TokenVerifier(KeyRing.builder().key("k1", K1).build());
+        String k2Token = token("k2", K2, 60000);
+
+        // When
+        verifier.setKeyRing(KeyRing.builder().key("k2", K2).signingKeyId("k2").build());
+
+        // Then
+        assertEquals("bob", verifier.verify(k2Token).getSubject());
+        assertNull(verifier.verifyOrNull(token("k1", K1, 60000)));
+        assertEquals("k2", verifier.getKeyRing().signingKey().id());
+        assertThrows(IllegalStateException.class, () -> KeyRing.builder().key("k1", K1).signingKeyId("k2").build());
+    }
+
+    @Test
+    public void testVerifiesRsaAndEcPublicKeysOnly() throws Exception {
+        // Given an issuer signing with private keys, and a ring of their public keys
+        KeyPair rsa = Jwts.SIG.RS256.keyPair().build();
+        KeyPair ec = Jwts.SIG.ES256.keyPair().build();
+        String ecPem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(ec.getPublic().getEncoded()) + "\n-----END PUBLIC KEY-----\n";
+        TokenVerifier verifier = new TokenVerifier(KeyRing.builder()
+                .publicKey("rsa", rsa.getPublic())
+                .publicKeyPem("ec", ecPem)
+                .build());
+
+        // When / Then
+        assertFalse(verifier.getKeyRing().canSign());
+        assertEquals("bob", verifier.verify(token("rsa", rsa.getPrivate(), 60000)).getSubject());
+        assertEquals("bob", verifier.verify(token("ec", ec.getPrivate(), 60000)).getSubject());
+        // A public key is no HMAC secret, even though it is public
+        assertNull(verifier.verifyOrNull(token("rsa", Keys.hmacShaKeyFor(rsa.getPublic().getEncoded()), 60000)));
+        assertThrows(IllegalArgumentException.class, () -> KeyRing.builder().publicKey("dsa",
+                KeyPairGenerator.getInstance("DSA").generateKeyPair().getPublic()));
+    }
+
+    @Test
+    public void testKeystoreKeyPairSignsAndItsCertificateVerifies(@TempDir Path tempDir) throws Exception {
+        // Given an EC key pair in the issuer's keystore, and its certificate exported for a resource server
+        Path keystore = tempDir.resolve("keys.p12");
+        Path certificate = tempDir.resolve("ec.pem");
+        keytool("-genkeypair", "-alias", "ec", "-keyalg", "EC", "-groupname", "secp256r1", "-dname", "CN=issuer",
+                "-storetype", "PKCS12", "-keystore", keystore.toString(), "-storepass", "changeit");
+        keytool("-exportcert", "-rfc", "-alias", "ec", "-keystore", keystore.toString(), "-storepass", "changeit",
+                "-file", certificate.toString());
+
+        // When
+        KeyRing issuer = KeyRing.builder().keystore(keystore, "changeit".toCharArray(), 0).build();
+        KeyRing resourceServer = KeyRing.builder().publicKeyPem("ec", Files.readString(certificate)).build();
+
+        // Then
+        assertEquals("ec", issuer.signingKey().id());
+        assertInstanceOf(PrivateKey.class, issuer.signingKey().key());
+        String token = token("ec", issuer.signingKey().key(), 60000);
+        assertEquals("bob", new TokenVerifier(resourceServer).verify(token).getSubject());
+        assertFalse(resourceServer.canSign());
+    }
+
+    @Test
+    public void testFilterStoresClaimsOrRejects() throws Exception {
+        // Given
+        TokenVerifier verifier = new TokenVerifier(KeyRing.builder().key("k1", K1).build());
+        JwtVerificationFilter filter = new JwtVerificationFilter(verifier, true);
+        HttpServletRequest valid = request("Bearer " + token("k1", K1, 60000));
+        HttpServletRequest invalid = request("Bearer " + token("k2", K2, 60000));
+        HttpServletRequest missing = request(null);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        // When
+        filter.doFilter(valid, response, chain);
+        filter.doFilter(invalid, response, chain);
+        filter.doFilter(missing, response, chain);
+
+        // Then
+        verify(valid).setAttribute(any(), any(Claims.class));
+        verify(chain).doFilter(valid, response);
+        verify(chain, never()).doFilter(invalid, response);
+        verify(chain, never()).doFilter(missing, response);
+        verify(response, times(2)).sendError(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    private static HttpServletRequest request(String authorization) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Authorization")).thenReturn(authorization);
+        return request;
+    }
+
+    private static void keytool(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        assertEquals(0, process.waitFor(), output);
+    }
+
+    private static String token(String keyId, Key key, long expiresInMs) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("bob")
+                .expiration(new Date(System.currentTimeMillis() + expiresInMs))
+                .signWith(key)
+                .compact();
+    }
+}